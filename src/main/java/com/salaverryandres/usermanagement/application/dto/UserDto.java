@@ -1,10 +1,13 @@
 package com.salaverryandres.usermanagement.application.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -17,4 +20,11 @@ public class UserDto {
     private String email;
     private String phone;
     private String role;
+
+    // Solo para las cabeceras ETag y Last-Modified
+    @JsonIgnore
+    private Long version;
+
+    @JsonIgnore
+    private Instant updatedAt;
 }
@@ -0,0 +1,30 @@
+package com.salaverryandres.usermanagement.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Página de usuarios con solo los campos pedidos en {@code ?fields=}: cada usuario es un mapa
+ * campo → valor, así que el JSON no lleva las propiedades que no se han leído.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFieldsPageResponse {
+    private List<Map<String, Object>> users;
+    private long totalElements;
+    private int totalPages;
+    private int currentPage;
+    private int pageSize;
+
+    // Solo con ?total=none|approximate, que no lanzan count(*)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean hasNext;
+}
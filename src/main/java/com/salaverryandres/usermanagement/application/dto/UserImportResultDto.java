@@ -0,0 +1,19 @@
+package com.salaverryandres.usermanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResultDto {
+    private int total;
+    private int created;
+    private int failed;
+    private List<UserImportRowResultDto> rows;
+}
@@ -0,0 +1,23 @@
+package com.salaverryandres.usermanagement.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportRowResultDto {
+
+    public enum Status { CREATED, FAILED }
+
+    private int row; // posición en el fichero, empezando en 1
+    private String email;
+    private Status status;
+    private String externalId;
+    private String error;
+}
@@ -1,5 +1,6 @@
 package com.salaverryandres.usermanagement.application.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,5 +18,13 @@ public class UserPageResponse {
     private int totalPages;
     private int currentPage;
     private int pageSize;
+
+    // Solo en modo cursor (?after=): null cuando no hay más páginas
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    // Solo en la búsqueda (/search) y en los listados con ?total=none|approximate, que no lanzan count(*)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean hasNext;
 }
 
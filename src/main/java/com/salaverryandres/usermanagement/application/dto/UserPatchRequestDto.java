@@ -0,0 +1,31 @@
+package com.salaverryandres.usermanagement.application.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cambios parciales de PATCH /api/users/{externalId}: los campos null no se modifican
+ * y un teléfono vacío lo elimina.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPatchRequestDto {
+
+    @Pattern(regexp = ".*\\S.*", message = "no puede estar vacío")
+    private String name;
+
+    @Pattern(regexp = ".*\\S.*", message = "no puede estar vacío")
+    private String lastName;
+
+    @Email
+    @Pattern(regexp = ".*\\S.*", message = "no puede estar vacío")
+    private String email;
+
+    private String phone;
+}
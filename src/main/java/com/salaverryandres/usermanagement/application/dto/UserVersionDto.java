@@ -0,0 +1,18 @@
+package com.salaverryandres.usermanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Versión y fecha de modificación de un usuario: lo mínimo para validar un ETag o Last-Modified.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserVersionDto {
+    private Long version;
+    private Instant updatedAt;
+}
@@ -0,0 +1,18 @@
+package com.salaverryandres.usermanagement.application.exception;
+
+import java.time.Duration;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    // Tiempo hasta que se admite el siguiente intento (cabecera Retry-After)
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,18 @@
+package com.salaverryandres.usermanagement.application.exception;
+
+import java.time.Duration;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    // Tiempo que el cliente debería esperar antes de reintentar (cabecera Retry-After)
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
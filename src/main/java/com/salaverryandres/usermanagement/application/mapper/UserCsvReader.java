@@ -0,0 +1,93 @@
+package com.salaverryandres.usermanagement.application.mapper;
+
+import com.salaverryandres.usermanagement.application.dto.UserCreateRequestDto;
+import com.salaverryandres.usermanagement.application.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lee el CSV de importación masiva. La primera línea es la cabecera con las columnas
+ * name, lastName, email y phone (en cualquier orden; phone es opcional).
+ * Admite campos entre comillas dobles con comas y comillas escapadas ("").
+ */
+public final class UserCsvReader {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "lastname", "email");
+
+    private UserCsvReader() {
+    }
+
+    public static List<UserCreateRequestDto> read(String csv) {
+        if (csv == null || csv.isBlank()) {
+            throw new BadRequestException("El fichero CSV está vacío");
+        }
+
+        List<String> lines = csv.lines().filter(line -> !line.isBlank()).toList();
+        Map<String, Integer> header = parseHeader(lines.get(0));
+
+        List<UserCreateRequestDto> rows = new ArrayList<>(lines.size() - 1);
+        for (int i = 1; i < lines.size(); i++) {
+            List<String> fields = parseLine(lines.get(i));
+            rows.add(UserCreateRequestDto.builder()
+                    .name(field(fields, header.get("name")))
+                    .lastName(field(fields, header.get("lastname")))
+                    .email(field(fields, header.get("email")))
+                    .phone(field(fields, header.get("phone")))
+                    .build());
+        }
+        return rows;
+    }
+
+    private static Map<String, Integer> parseHeader(String line) {
+        List<String> columns = parseLine(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!header.keySet().containsAll(REQUIRED_COLUMNS)) {
+            throw new BadRequestException("Cabecera CSV inválida: se esperan las columnas name, lastName, email y phone");
+        }
+        return header;
+    }
+
+    private static String field(List<String> fields, Integer index) {
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
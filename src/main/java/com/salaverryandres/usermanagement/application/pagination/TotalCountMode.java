@@ -0,0 +1,31 @@
+package com.salaverryandres.usermanagement.application.pagination;
+
+import com.salaverryandres.usermanagement.application.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Cómo calcula el listado de usuarios {@code totalElements}/{@code totalPages} ({@code ?total=}).
+ */
+public enum TotalCountMode {
+
+    /** count(*) en cada petición (comportamiento por defecto). */
+    EXACT,
+
+    /** Total en caché, refrescado en segundo plano y ajustado en altas y bajas. */
+    APPROXIMATE,
+
+    /** Sin total: solo {@code hasNext}. */
+    NONE;
+
+    public static TotalCountMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Valor de total no válido: " + value + " (exact, approximate o none)");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.salaverryandres.usermanagement.application.pagination;
+
+import com.salaverryandres.usermanagement.application.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para la paginación keyset de usuarios.
+ * Codifica el último id devuelto para que la siguiente página busque a partir de él.
+ */
+public final class UserCursor {
+
+    private static final String CURSOR_INVALIDO = "Cursor inválido";
+
+    private UserCursor() {
+    }
+
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor cursor recibido en {@code ?after=}; vacío significa primera página
+     * @return último id visto (0 para la primera página)
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            long lastId = Long.parseLong(raw);
+            if (lastId < 0) {
+                throw new BadRequestException(CURSOR_INVALIDO);
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(CURSOR_INVALIDO, e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.salaverryandres.usermanagement.application.projection;
+
+import com.salaverryandres.usermanagement.application.exception.BadRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Campos de {@code UserDto} que se pueden pedir con {@code ?fields=}. El nombre es a la vez
+ * el atributo de {@code UserEntity} y la propiedad JSON de la respuesta.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum UserField {
+
+    ID("id"),
+    EXTERNAL_ID("externalId"),
+    NAME("name"),
+    LAST_NAME("lastName"),
+    EMAIL("email"),
+    PHONE("phone"),
+    ROLE("role");
+
+    private final String property;
+
+    /**
+     * Interpreta una lista separada por comas (p. ej. {@code externalId,email}).
+     *
+     * @return los campos en el orden de este enum; vacío si no se indica ninguno (todos los campos)
+     */
+    public static Set<UserField> parse(String fields) {
+        Set<UserField> result = EnumSet.noneOf(UserField.class);
+        if (fields == null || fields.isBlank()) {
+            return result;
+        }
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            result.add(Arrays.stream(values())
+                    .filter(field -> field.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new BadRequestException("Campo no válido: " + property + " (" + allowed() + ")")));
+        }
+        return result;
+    }
+
+    private static String allowed() {
+        return Arrays.stream(values()).map(UserField::getProperty).collect(Collectors.joining(", "));
+    }
+}
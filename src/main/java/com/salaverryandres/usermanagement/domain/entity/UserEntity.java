@@ -5,15 +5,23 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
 @Table(name = "users")
+@DynamicUpdate // el UPDATE solo lleva las columnas modificadas (PATCH)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,8 +29,14 @@ import lombok.Setter;
 @Builder
 public class UserEntity {
 
+    // Ids reservados por cada llamada al sequence; Hibernate los reparte en memoria (optimizador pooled)
+    public static final int ID_ALLOCATION_SIZE = 100;
+    public static final String ID_SEQUENCE = "users_seq";
+
+    // Con SEQUENCE (a diferencia de IDENTITY) Hibernate conoce el id antes del INSERT y puede agruparlos en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     // UUID externo para sincronizar con Cognito, si fuera necesario
@@ -44,4 +58,15 @@ public class UserEntity {
     @Column(nullable = false, length = 100)
     private String role;
 
+    // Bloqueo optimista y ETag de GET /api/users/{externalId}; las filas anteriores empiezan en 0
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Last-Modified; null en filas que no se han modificado desde que existe la columna
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
 }
@@ -0,0 +1,75 @@
+package com.salaverryandres.usermanagement.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Cambio pendiente de aplicar en Cognito. Se guarda en la misma transacción que el cambio
+ * en {@code users} y lo aplica en segundo plano el dispatcher del outbox.
+ */
+@Entity
+@Table(name = "user_outbox", indexes = @Index(name = "idx_user_outbox_pending", columnList = "status, next_attempt_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserOutboxEventEntity {
+
+    public enum EventType { UPDATE_ATTRIBUTES, DELETE_USER }
+
+    public enum Status { PENDING, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30, name = "event_type")
+    private EventType eventType;
+
+    // externalId (sub) del usuario: agrupa sus eventos para aplicarlos en orden.
+    // En DELETE_USER el usuario de Cognito a borrar va en email
+    @Column(nullable = false, length = 150)
+    private String username;
+
+    @Column(length = 100)
+    private String name;
+
+    @Column(length = 150)
+    private String email;
+
+    // Vacío (no null): borrar phone_number en Cognito
+    @Column(length = 15)
+    private String phone;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false, name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Column(nullable = false, name = "created_at")
+    private Instant createdAt;
+
+    @Column(length = 500, name = "last_error")
+    private String lastError;
+}
@@ -0,0 +1,31 @@
+package com.salaverryandres.usermanagement.domain.repository;
+
+import com.salaverryandres.usermanagement.domain.entity.UserOutboxEventEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface UserOutboxEventRepository extends JpaRepository<UserOutboxEventEntity, Long> {
+
+    // Lote de eventos vencidos; SKIP LOCKED permite varias instancias reservando a la vez.
+    // Solo el evento pendiente más antiguo de cada usuario: mientras esté reservado o esperando
+    // un reintento, los posteriores del mismo usuario no se toman (orden por usuario)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from UserOutboxEventEntity e"
+            + " where e.status = :status and e.nextAttemptAt <= :now"
+            + " and not exists (select 1 from UserOutboxEventEntity p"
+            + " where p.username = e.username and p.status = :status and p.id < e.id)"
+            + " order by e.id")
+    List<UserOutboxEventEntity> findDispatchable(@Param("status") UserOutboxEventEntity.Status status,
+                                                 @Param("now") Instant now,
+                                                 Limit limit);
+}
@@ -1,16 +1,74 @@
 package com.salaverryandres.usermanagement.domain.repository;
 
+import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.dto.UserVersionDto;
 import com.salaverryandres.usermanagement.domain.entity.UserEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
+public interface UserRepository extends JpaRepository<UserEntity, Long>, UserRepositoryCustom {
+
+    // Proyección directa a UserDto para las lecturas de listados: sin entidades gestionadas,
+    // ni snapshots para dirty checking, ni paso por el mapper
+    String USER_DTO = "new com.salaverryandres.usermanagement.application.dto.UserDto("
+            + "u.id, u.externalId, u.name, u.lastName, u.email, u.phone, u.role, u.version, u.updatedAt)";
 
     Optional<UserEntity> findByEmail(String email);
 
-    // Buscar por externalId (usado como referencia al sub de Cognito)
+    // Buscar por externalId (usado como referencia al sub de Cognito).
+    // Transacción de lectura-escritura para que con réplicas se lea siempre del primario: lo que se lee aquí
+    // se guarda en la caché de usuarios, y una réplica con retraso la rellenaría con la versión anterior
+    // a un PUT/PATCH/DELETE durante todo el TTL
+    @Transactional
     Optional<UserEntity> findByExternalId(String externalId);
 
     boolean existsByEmail(String email);
+
+    // Emails ya registrados de entre los indicados (una sola consulta para la importación masiva).
+    // Sin distinguir mayúsculas: los emails llegan en minúsculas y se devuelven en minúsculas
+    @Query("select lower(u.email) from UserEntity u where lower(u.email) in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Para responder 304 sin cargar el usuario completo. En el primario, como findByExternalId:
+    // con la versión de una réplica con retraso se respondería 304 a un cliente con el usuario antiguo
+    @Transactional
+    @Query("select new com.salaverryandres.usermanagement.application.dto.UserVersionDto(u.version, u.updatedAt)"
+            + " from UserEntity u where u.externalId = :externalId")
+    Optional<UserVersionDto> findVersionByExternalId(@Param("externalId") String externalId);
+
+    @Query(value = "select " + USER_DTO + " from UserEntity u",
+            countQuery = "select count(u) from UserEntity u")
+    Page<UserDto> findAllAsDto(Pageable pageable);
+
+    // Slice: Spring Data pide size + 1 filas para calcular hasNext y no lanza el count(*)
+    @Query("select " + USER_DTO + " from UserEntity u")
+    Slice<UserDto> findSliceAsDto(Pageable pageable);
+
+    // Paginación keyset: busca por la PK a partir del último id visto, sin OFFSET ni count(*)
+    @Query("select " + USER_DTO + " from UserEntity u where u.id > :id order by u.id")
+    List<UserDto> findAsDtoAfter(@Param("id") Long id, Limit limit);
+
+    // Recorre toda la tabla con un cursor del driver (fetch size) en lugar de cargarla en memoria.
+    // Debe consumirse dentro de una transacción y cerrarse al terminar.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select u from UserEntity u order by u.id")
+    Stream<UserEntity> streamAll();
 }
@@ -0,0 +1,34 @@
+package com.salaverryandres.usermanagement.domain.repository;
+
+import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.projection.UserField;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Consultas de usuarios que no se pueden expresar con {@code @Query}: lista de columnas según la petición
+ * o SQL nativo específico para usar los índices.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Página de usuarios leyendo solo las columnas de {@code fields}.
+     *
+     * @param fields   campos a seleccionar, al menos uno
+     * @param pageable página, tamaño y orden; sin orden se ordena por id
+     * @return filas con una entrada por campo, en el orden de {@link UserField}
+     */
+    Slice<Map<String, Object>> findFields(Set<UserField> fields, Pageable pageable);
+
+    /**
+     * Búsqueda por prefijo en nombre, apellido o email (autocompletado), sin count(*).
+     * Los usuarios se ordenan por la primera columna que coincide en orden alfabético y después por id.
+     *
+     * @param prefix   prefijo en minúsculas, escapado con '!' y terminado en '%'
+     * @param pageable página y tamaño; el orden de la petición se ignora
+     */
+    Slice<UserDto> searchByPrefix(String prefix, Pageable pageable);
+}
@@ -0,0 +1,32 @@
+package com.salaverryandres.usermanagement.domain.service;
+
+import com.salaverryandres.usermanagement.application.dto.LoginResponseDto;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Variante no bloqueante de {@link CognitoService}: las mismas operaciones devuelven
+ * {@link CompletableFuture} y los errores llegan como excepción del futuro, los mismos
+ * que lanzaría la variante síncrona.
+ */
+public interface CognitoAsyncService {
+
+    /**
+     * Registra un usuario en Cognito.
+     *
+     * @return futuro con el sub del usuario (externalId)
+     */
+    CompletableFuture<String> registerUser(String name, String email, String phone);
+
+    CompletableFuture<Void> updateUserAttributes(String usernameOrSub, String name, String email, String phone);
+
+    CompletableFuture<Void> deleteUser(String username);
+
+    CompletableFuture<Void> addUserToGroup(String username, String groupName);
+
+    CompletableFuture<LoginResponseDto> login(String email, String password);
+
+    CompletableFuture<LoginResponseDto> respondToNewPasswordChallenge(String email, String newPassword, String session);
+
+    CompletableFuture<Void> logout(String username);
+}
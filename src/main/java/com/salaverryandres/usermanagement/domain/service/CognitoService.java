@@ -3,7 +3,16 @@ package com.salaverryandres.usermanagement.domain.service;
 import com.salaverryandres.usermanagement.application.dto.LoginResponseDto;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.CognitoIdentityProviderException;
 
+import java.util.List;
+import java.util.Map;
+
 public interface CognitoService {
+
+    // Nombres de los atributos estándar de Cognito que se sincronizan con UserEntity
+    String ATTRIBUTE_NAME = "name";
+    String ATTRIBUTE_EMAIL = "email";
+    String ATTRIBUTE_PHONE = "phone_number";
+
     /**
      * Registra un usuario en Cognito con el rol USER.
      *
@@ -16,6 +25,18 @@ public interface CognitoService {
 
     void updateUserAttributes(String usernameOrSub, String name, String email, String phone);
 
+    /**
+     * Actualiza solo los atributos indicados.
+     *
+     * @param attributes nombre del atributo de Cognito ({@link #ATTRIBUTE_NAME}, ...) y su nuevo valor
+     */
+    void updateUserAttributes(String usernameOrSub, Map<String, String> attributes);
+
+    /**
+     * Elimina atributos opcionales del usuario (p. ej. {@link #ATTRIBUTE_PHONE}).
+     */
+    void deleteUserAttributes(String usernameOrSub, List<String> attributeNames);
+
     void deleteUser(String username);
 
     void addUserToGroup(String username, String groupName);
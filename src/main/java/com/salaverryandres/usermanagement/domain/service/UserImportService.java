@@ -0,0 +1,18 @@
+package com.salaverryandres.usermanagement.domain.service;
+
+import com.salaverryandres.usermanagement.application.dto.UserCreateRequestDto;
+import com.salaverryandres.usermanagement.application.dto.UserImportResultDto;
+
+import java.util.List;
+
+public interface UserImportService {
+
+    /**
+     * Alta masiva de usuarios: aprovisiona Cognito en paralelo (con un límite configurable)
+     * e inserta en base de datos por lotes.
+     *
+     * @param rows filas a importar, en el orden del fichero
+     * @return resultado por fila (creada o fallida con el motivo)
+     */
+    UserImportResultDto importUsers(List<UserCreateRequestDto> rows);
+}
@@ -2,18 +2,86 @@ package com.salaverryandres.usermanagement.domain.service;
 
 import com.salaverryandres.usermanagement.application.dto.UserCreateRequestDto;
 import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.dto.UserFieldsPageResponse;
 import com.salaverryandres.usermanagement.application.dto.UserPageResponse;
+import com.salaverryandres.usermanagement.application.dto.UserPatchRequestDto;
+import com.salaverryandres.usermanagement.application.dto.UserVersionDto;
+import com.salaverryandres.usermanagement.application.pagination.TotalCountMode;
+import com.salaverryandres.usermanagement.application.projection.UserField;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Set;
+import java.util.function.Consumer;
+
 public interface UserService {
 
     UserDto createUser(UserCreateRequestDto request);
 
-    UserPageResponse getAllUsers(Pageable pageable);
+    default UserPageResponse getAllUsers(Pageable pageable) {
+        return getAllUsers(pageable, TotalCountMode.EXACT);
+    }
+
+    /**
+     * Página de usuarios por número de página.
+     *
+     * @param countMode cómo se calcula el total: count(*) exacto, total en caché o ninguno (solo {@code hasNext})
+     */
+    UserPageResponse getAllUsers(Pageable pageable, TotalCountMode countMode);
+
+    /**
+     * Como {@link #getAllUsers(Pageable, TotalCountMode)}, pero leyendo y devolviendo solo los campos indicados.
+     *
+     * @param fields campos a incluir en cada usuario, al menos uno
+     */
+    UserFieldsPageResponse getAllUsers(Pageable pageable, TotalCountMode countMode, Set<UserField> fields);
+
+    /**
+     * Página de usuarios en modo cursor (keyset sobre el id).
+     *
+     * @param cursor cursor opaco devuelto en {@code nextCursor}; vacío para la primera página
+     * @param size   tamaño de página
+     */
+    UserPageResponse getUsersAfter(String cursor, int size);
 
     UserDto getUserByExternalId(String externalId);
 
-    UserDto updateUser(String externalId, UserCreateRequestDto request);
+    /**
+     * Versión y fecha de modificación del usuario, sin cargarlo completo (peticiones condicionales).
+     */
+    UserVersionDto getUserVersion(String externalId);
+
+    /**
+     * Busca usuarios cuyo nombre, apellido o email empiece por el texto indicado (sin distinguir mayúsculas).
+     *
+     * @param query    prefijo a buscar, de al menos 2 caracteres
+     * @param pageable página y tamaño; el orden es siempre por id
+     */
+    UserPageResponse searchUsers(String query, Pageable pageable);
+
+    /**
+     * Recorre todos los usuarios en orden de id entregándolos uno a uno, sin acumularlos en memoria.
+     *
+     * @param consumer receptor de cada usuario (p. ej. el escritor de la exportación NDJSON)
+     */
+    void streamAllUsers(Consumer<UserDto> consumer);
+
+    default UserDto updateUser(String externalId, UserCreateRequestDto request) {
+        return updateUser(externalId, request, null);
+    }
+
+    /**
+     * @param expectedVersion versión que el cliente cree actual (If-Match); null para no comprobarla
+     * @throws com.salaverryandres.usermanagement.application.exception.PreconditionFailedException si no coincide
+     */
+    UserDto updateUser(String externalId, UserCreateRequestDto request, Long expectedVersion);
+
+    /**
+     * Aplica solo los campos no nulos de {@code patch}; Cognito se llama únicamente con los atributos
+     * que cambian y no se llama si no cambia ninguno.
+     *
+     * @param expectedVersion versión que el cliente cree actual (If-Match); null para no comprobarla
+     */
+    UserDto patchUser(String externalId, UserPatchRequestDto patch, Long expectedVersion);
 
     void deleteUser(String externalId);
 }
@@ -1,12 +1,19 @@
 package com.salaverryandres.usermanagement.infrastructure.config;
 
+import com.salaverryandres.usermanagement.infrastructure.metrics.CognitoMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 
+import java.time.Duration;
+
 @Configuration
 public class AwsCognitoConfig {
 
@@ -14,10 +21,37 @@ public class AwsCognitoConfig {
     private String region;
 
     @Bean
-    public CognitoIdentityProviderClient cognitoIdentityProviderClient() {
+    public CognitoMetricsInterceptor cognitoMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new CognitoMetricsInterceptor(meterRegistry);
+    }
+
+    @Bean
+    public CognitoIdentityProviderClient cognitoIdentityProviderClient(CognitoMetricsInterceptor metricsInterceptor) {
         return CognitoIdentityProviderClient.builder()
                 .region(Region.of(region))
                 .credentialsProvider(DefaultCredentialsProvider.create())
+                .overrideConfiguration(config -> config.addExecutionInterceptor(metricsInterceptor))
+                .build();
+    }
+
+    // Cliente no bloqueante (Netty) con su propio pool de conexiones
+    @Bean
+    @ConditionalOnProperty(name = "aws.cognito.async.enabled", havingValue = "true")
+    public CognitoIdentityProviderAsyncClient cognitoIdentityProviderAsyncClient(
+            CognitoMetricsInterceptor metricsInterceptor,
+            @Value("${aws.cognito.async.max-concurrency:100}") int maxConcurrency,
+            @Value("${aws.cognito.async.max-pending-connection-acquires:1000}") int maxPendingConnectionAcquires,
+            @Value("${aws.cognito.async.connection-acquisition-timeout:2s}") Duration connectionAcquisitionTimeout,
+            @Value("${aws.cognito.async.connection-timeout:2s}") Duration connectionTimeout) {
+        return CognitoIdentityProviderAsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(DefaultCredentialsProvider.create())
+                .overrideConfiguration(config -> config.addExecutionInterceptor(metricsInterceptor))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConcurrency)
+                        .maxPendingConnectionAcquires(maxPendingConnectionAcquires)
+                        .connectionAcquisitionTimeout(connectionAcquisitionTimeout)
+                        .connectionTimeout(connectionTimeout))
                 .build();
     }
 }
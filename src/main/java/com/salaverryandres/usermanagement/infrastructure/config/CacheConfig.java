@@ -0,0 +1,31 @@
+package com.salaverryandres.usermanagement.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+// La caché va por fuera de la transacción: un acierto no abre transacción ni pide conexión,
+// y la invalidación se aplica después del commit
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String USERS_BY_EXTERNAL_ID = "usersByExternalId";
+
+    // JSON ya serializado de cada usuario (UserJsonCache); se invalida a la vez que USERS_BY_EXTERNAL_ID
+    public static final String USER_JSON_BY_EXTERNAL_ID = "userJsonByExternalId";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${users.cache.spec:maximumSize=10000,expireAfterWrite=5m,recordStats}") String spec) {
+        // recordStats es necesario para publicar aciertos/fallos/desalojos en /actuator/metrics (cache.*)
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(USERS_BY_EXTERNAL_ID, USER_JSON_BY_EXTERNAL_ID);
+        cacheManager.setCacheSpecification(spec);
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
@@ -0,0 +1,86 @@
+package com.salaverryandres.usermanagement.infrastructure.config;
+
+import com.salaverryandres.usermanagement.domain.service.CognitoService;
+import com.salaverryandres.usermanagement.infrastructure.resilience.AdaptiveConcurrencyLimiter;
+import com.salaverryandres.usermanagement.infrastructure.resilience.CircuitBreaker;
+import com.salaverryandres.usermanagement.infrastructure.service.CognitoBackend;
+import com.salaverryandres.usermanagement.infrastructure.service.ResilientCognitoService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@Configuration
+public class CognitoResilienceConfig {
+
+    @Value("${aws.cognito.resilience.auth.initial-limit:20}")
+    private int authInitialLimit;
+
+    @Value("${aws.cognito.resilience.auth.max-limit:100}")
+    private int authMaxLimit;
+
+    @Value("${aws.cognito.resilience.admin.initial-limit:10}")
+    private int adminInitialLimit;
+
+    @Value("${aws.cognito.resilience.admin.max-limit:50}")
+    private int adminMaxLimit;
+
+    @Value("${aws.cognito.resilience.min-limit:1}")
+    private int minLimit;
+
+    @Value("${aws.cognito.resilience.latency-threshold:1s}")
+    private Duration latencyThreshold;
+
+    @Value("${aws.cognito.resilience.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${aws.cognito.resilience.circuit-breaker.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${aws.cognito.resilience.circuit-breaker.window-size:20}")
+    private int windowSize;
+
+    @Value("${aws.cognito.resilience.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${aws.cognito.resilience.circuit-breaker.open-duration:10s}")
+    private Duration openDuration;
+
+    // El CognitoService que reciben los servicios y controladores
+    @Bean
+    @Primary
+    public CognitoService resilientCognitoService(@CognitoBackend CognitoService backend, MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter auth = limiter("auth", authInitialLimit, authMaxLimit, meterRegistry);
+        AdaptiveConcurrencyLimiter admin = limiter("admin", adminInitialLimit, adminMaxLimit, meterRegistry);
+
+        return new ResilientCognitoService(backend,
+                auth, circuitBreaker("auth", meterRegistry),
+                admin, circuitBreaker("admin", meterRegistry));
+    }
+
+    // Uno por bulkhead: el throttling de una importación no debe abrir el circuito de los logins
+    private CircuitBreaker circuitBreaker(String name, MeterRegistry meterRegistry) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(failureRateThreshold, windowSize, minimumCalls, openDuration);
+        Gauge.builder("cognito.circuit.open", circuitBreaker, cb -> cb.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 si el circuit breaker de Cognito está abierto o semiabierto")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        return circuitBreaker;
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(String name, int initialLimit, int maxLimit, MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                name, initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio);
+        Gauge.builder("cognito.bulkhead.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("cognito.bulkhead.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        return limiter;
+    }
+}
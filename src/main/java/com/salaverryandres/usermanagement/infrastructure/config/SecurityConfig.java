@@ -1,14 +1,28 @@
 package com.salaverryandres.usermanagement.infrastructure.config;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.salaverryandres.usermanagement.infrastructure.security.CachingJwtDecoder;
 import com.salaverryandres.usermanagement.infrastructure.security.CustomAuthenticationEntryPoint;
 import com.salaverryandres.usermanagement.infrastructure.security.JwtAuthConverter;
+import com.salaverryandres.usermanagement.infrastructure.security.LocalJwksSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtDecoders;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.SupplierJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
@@ -16,10 +30,13 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    @Value("${users.security.token-cache.maximum-size:10000}")
+    private long tokenCacheMaximumSize;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http, CustomAuthenticationEntryPoint entryPoint) throws Exception {
         JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(new JwtAuthConverter());
+        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(new JwtAuthConverter(tokenCacheMaximumSize));
 
         return http
                 .csrf(AbstractHttpConfigurer::disable)
@@ -29,7 +46,11 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/h2-console/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/h2-console/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/change-password").permitAll()
-                        .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/actuator/**").permitAll()
+                        .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        // Solo health es público: metrics/caches/prometheus exponen datos internos
+                        // y DELETE /actuator/caches vaciaría las cachés de usuarios
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
@@ -39,4 +60,29 @@ public class SecurityConfig {
                 .build();
     }
 
-}
\ No newline at end of file
+    // Sustituye al decoder de Spring Boot para poner delante la caché de tokens ya validados.
+    // Con users.security.jwks.snapshot-file las claves salen de la copia local y el arranque no toca la red;
+    // si no, SupplierJwtDecoder conserva la carga perezosa de la configuración del issuer
+    @Bean
+    @Profile("!cognito-stub")
+    public JwtDecoder jwtDecoder(@Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
+                                 ObjectProvider<LocalJwksSource> localJwksSource) {
+        LocalJwksSource jwksSource = localJwksSource.getIfAvailable();
+        JwtDecoder issuerDecoder = jwksSource != null
+                ? localJwksDecoder(issuerUri, jwksSource)
+                : new SupplierJwtDecoder(() -> JwtDecoders.fromIssuerLocation(issuerUri));
+        return new CachingJwtDecoder(issuerDecoder, tokenCacheMaximumSize);
+    }
+
+    private static JwtDecoder localJwksDecoder(String issuerUri, LocalJwksSource jwksSource) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwksSource));
+        // Las claims las valida Spring (exp, nbf, iss) con JwtValidators
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return decoder;
+    }
+
+}
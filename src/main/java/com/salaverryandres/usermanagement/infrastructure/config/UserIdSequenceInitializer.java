@@ -0,0 +1,69 @@
+package com.salaverryandres.usermanagement.infrastructure.config;
+
+import com.salaverryandres.usermanagement.domain.entity.UserEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Migración del id IDENTITY al sequence pooled {@code users_seq}: en una base de datos con usuarios
+ * creados antes del cambio, el sequence recién creado empezaría en 1 y chocaría con los ids existentes.
+ * Se adelanta hasta max(id) antes de que arranque el servidor web, de modo que ningún INSERT lo use sin alinear.
+ * Con el optimizador pooled cada nextval es el último id de un bloque de {@code ID_ALLOCATION_SIZE}, así que el
+ * siguiente nextval tiene que devolver al menos max(id) + ID_ALLOCATION_SIZE.
+ * Se hace en PostgreSQL y en H2 (el perfil dev usa una base en fichero con ddl-auto: update).
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory") // ddl-auto crea la tabla y el sequence antes de alinearlo
+@RequiredArgsConstructor
+public class UserIdSequenceInitializer implements SmartInitializingSingleton {
+
+    private static final String CREATE_SEQUENCE = "create sequence if not exists " + UserEntity.ID_SEQUENCE
+            + " start with 1 increment by " + UserEntity.ID_ALLOCATION_SIZE;
+
+    // PostgreSQL: con setval(max_id) el siguiente nextval es max_id + increment
+    private static final String ALIGN_SEQUENCE = "select setval('" + UserEntity.ID_SEQUENCE + "', t.max_id)"
+            + " from (select max(id) as max_id from users) t"
+            + " where t.max_id >= (select last_value from " + UserEntity.ID_SEQUENCE + ")";
+
+    // H2: base_value es el valor que devolverá el siguiente nextval
+    private static final String H2_NEXT_VALUE = "select base_value from information_schema.sequences"
+            + " where sequence_schema = current_schema and sequence_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if ("PostgreSQL".equals(database)) {
+            jdbcTemplate.execute(CREATE_SEQUENCE);
+            jdbcTemplate.queryForList(ALIGN_SEQUENCE, Long.class)
+                    .forEach(value -> log.info("Sequence {} alineado con los ids existentes (último id: {})",
+                            UserEntity.ID_SEQUENCE, value));
+        } else if ("H2".equals(database)) {
+            jdbcTemplate.execute(CREATE_SEQUENCE);
+            alignH2();
+        }
+    }
+
+    private void alignH2() {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from users", Long.class);
+        if (maxId == null) {
+            return; // tabla vacía: el sequence puede empezar en 1
+        }
+        Long nextValue = jdbcTemplate.queryForObject(H2_NEXT_VALUE, Long.class,
+                UserEntity.ID_SEQUENCE.toUpperCase(Locale.ROOT));
+        long restart = maxId + UserEntity.ID_ALLOCATION_SIZE;
+        if (nextValue == null || nextValue < restart) {
+            jdbcTemplate.execute("alter sequence " + UserEntity.ID_SEQUENCE + " restart with " + restart);
+            log.info("Sequence {} alineado con los ids existentes (último id: {})", UserEntity.ID_SEQUENCE, maxId);
+        }
+    }
+}
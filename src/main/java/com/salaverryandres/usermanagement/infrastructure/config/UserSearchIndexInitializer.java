@@ -0,0 +1,58 @@
+package com.salaverryandres.usermanagement.infrastructure.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Crea en PostgreSQL los índices de la búsqueda por prefijo (GET /api/users/search).
+ * ddl-auto no sabe crear índices funcionales: lower(col) con text_pattern_ops permite usar
+ * el índice en "lower(col) like 'abc%'" sea cual sea la collation de la base de datos.
+ * Se crean CONCURRENTLY para no bloquear escrituras en tablas grandes. Si una creación concurrente
+ * falla a medias el índice queda INVALID (existe pero no se usa) y "if not exists" no lo rehace:
+ * al arrancar se borra y se vuelve a crear.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserSearchIndexInitializer implements ApplicationRunner {
+
+    private static final Map<String, String> INDEXES = Map.of(
+            "idx_users_name_prefix", "users (lower(name) text_pattern_ops)",
+            "idx_users_last_name_prefix", "users (lower(last_name) text_pattern_ops)",
+            "idx_users_email_prefix", "users (lower(email) text_pattern_ops)"
+    );
+
+    private static final String IS_INVALID = "select count(*) from pg_index i join pg_class c on c.oid = i.indexrelid"
+            + " where c.relname = ? and c.relnamespace = current_schema()::regnamespace and not i.indisvalid";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return; // H2 (dev/test): la búsqueda funciona igual, sin índice
+        }
+        INDEXES.forEach((name, definition) -> {
+            try {
+                Integer invalid = jdbcTemplate.queryForObject(IS_INVALID, Integer.class, name);
+                if (invalid != null && invalid > 0) {
+                    log.warn("El índice de búsqueda {} está INVALID (creación concurrente interrumpida); se reconstruye", name);
+                    jdbcTemplate.execute("drop index concurrently if exists " + name);
+                }
+                jdbcTemplate.execute("create index concurrently if not exists " + name + " on " + definition);
+            } catch (DataAccessException e) {
+                // No impedimos el arranque: sin índice la búsqueda sigue funcionando, solo más lenta
+                log.error("No se pudo crear el índice de búsqueda {}: {}", name, e.getMessage());
+            }
+        });
+    }
+}
@@ -3,7 +3,9 @@ package com.salaverryandres.usermanagement.infrastructure.controller;
 import com.salaverryandres.usermanagement.application.dto.ChangePasswordRequestDto;
 import com.salaverryandres.usermanagement.application.dto.LoginRequestDto;
 import com.salaverryandres.usermanagement.application.dto.LoginResponseDto;
-import com.salaverryandres.usermanagement.domain.service.CognitoService;
+import com.salaverryandres.usermanagement.domain.service.CognitoAsyncService;
+import com.salaverryandres.usermanagement.infrastructure.security.LoginRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -14,34 +16,42 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
+// Los endpoints devuelven CompletableFuture: con aws.cognito.async.enabled=true el hilo
+// del servlet se libera mientras Cognito responde
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
-    private final CognitoService cognitoService;
+    private final CognitoAsyncService cognitoService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDto> login(@Valid @RequestBody LoginRequestDto request) {
-        return ResponseEntity.ok(cognitoService.login(request.getEmail(), request.getPassword()));
+    public CompletableFuture<ResponseEntity<LoginResponseDto>> login(@Valid @RequestBody LoginRequestDto request,
+                                                                     HttpServletRequest httpRequest) {
+        // Los intentos que superan el límite se rechazan con 429 sin llegar a Cognito
+        loginRateLimiter.acquire(request.getEmail(), httpRequest.getRemoteAddr());
+        return cognitoService.login(request.getEmail(), request.getPassword())
+                .thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/change-password")
-    public ResponseEntity<LoginResponseDto> changePassword(@Valid @RequestBody ChangePasswordRequestDto request) {
-        return ResponseEntity.ok(
-                cognitoService.respondToNewPasswordChallenge(
+    public CompletableFuture<ResponseEntity<LoginResponseDto>> changePassword(@Valid @RequestBody ChangePasswordRequestDto request) {
+        return cognitoService.respondToNewPasswordChallenge(
                         request.getEmail(),
                         request.getNewPassword(),
                         request.getSession()
                 )
-        );
+                .thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(@AuthenticationPrincipal Jwt principal) {
+    public CompletableFuture<ResponseEntity<Void>> logout(@AuthenticationPrincipal Jwt principal) {
         String externalId = principal.getSubject(); // sub == username
-        cognitoService.logout(externalId);
-        return ResponseEntity.noContent().build();
+        return cognitoService.logout(externalId)
+                .thenApply(ignored -> ResponseEntity.noContent().<Void>build());
     }
 
 }
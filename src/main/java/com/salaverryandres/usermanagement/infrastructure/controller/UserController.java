@@ -1,17 +1,39 @@
 package com.salaverryandres.usermanagement.infrastructure.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.salaverryandres.usermanagement.application.dto.UserCreateRequestDto;
 import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.dto.UserFieldsPageResponse;
+import com.salaverryandres.usermanagement.application.dto.UserImportResultDto;
 import com.salaverryandres.usermanagement.application.dto.UserPageResponse;
+import com.salaverryandres.usermanagement.application.dto.UserPatchRequestDto;
+import com.salaverryandres.usermanagement.application.dto.UserVersionDto;
+import com.salaverryandres.usermanagement.application.exception.BadRequestException;
+import com.salaverryandres.usermanagement.application.mapper.UserCsvReader;
+import com.salaverryandres.usermanagement.application.pagination.TotalCountMode;
+import com.salaverryandres.usermanagement.application.projection.UserField;
+import com.salaverryandres.usermanagement.domain.service.UserImportService;
 import com.salaverryandres.usermanagement.domain.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/users")
@@ -19,6 +41,11 @@ import java.net.URI;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
+    private final UserJsonCache userJsonCache;
+
+    private static final List<MediaType> BINARY_TYPES = List.of(MediaType.APPLICATION_CBOR, UserETags.SMILE);
 
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping
@@ -29,13 +56,40 @@ public class UserController {
                 .body(user);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserImportResultDto> importUsers(@RequestBody List<UserCreateRequestDto> rows) {
+        return ResponseEntity.ok(userImportService.importUsers(rows));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<UserImportResultDto> importUsersCsv(@RequestBody String csv) {
+        return ResponseEntity.ok(userImportService.importUsers(UserCsvReader.read(csv)));
+    }
+
     @PreAuthorize("hasRole('ADMIN') or #externalId == authentication.name")
     @PutMapping("/{externalId}")
     public ResponseEntity<UserDto> updateUser(
             @PathVariable String externalId,
-            @Valid @RequestBody UserCreateRequestDto request) {
-        UserDto updated = userService.updateUser(externalId, request);
-        return ResponseEntity.ok(updated);
+            @Valid @RequestBody UserCreateRequestDto request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // Con If-Match: "<version>" solo se actualiza si nadie lo ha modificado antes (412 si no)
+        UserDto updated = userService.updateUser(externalId, request, UserETags.expectedVersion(ifMatch));
+        return withUserValidators(updated, representation(accept));
+    }
+
+    // Cambios parciales: solo los campos enviados; Cognito solo recibe los atributos que cambian
+    @PreAuthorize("hasRole('ADMIN') or #externalId == authentication.name")
+    @PatchMapping("/{externalId}")
+    public ResponseEntity<UserDto> patchUser(
+            @PathVariable String externalId,
+            @Valid @RequestBody UserPatchRequestDto patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        UserDto updated = userService.patchUser(externalId, patch, UserETags.expectedVersion(ifMatch));
+        return withUserValidators(updated, representation(accept));
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -45,17 +99,133 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+    // Autocompletado del buscador de administración: ?q=<prefijo>&page=0&size=20
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/search")
+    public ResponseEntity<UserPageResponse> searchUsers(@RequestParam("q") String query, Pageable pageable) {
+        return ResponseEntity.ok(userService.searchUsers(query, pageable));
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @GetMapping("/{externalId}")
-    public ResponseEntity<UserDto> getUserByExternalId(@PathVariable String externalId) {
+    public ResponseEntity<?> getUserByExternalId(
+            @PathVariable String externalId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType representation = representation(accept);
+        // Sondeo con If-None-Match: basta con leer la versión para responder 304, sin cargar ni serializar el usuario
+        if (ifNoneMatch != null) {
+            UserVersionDto current = userService.getUserVersion(externalId);
+            if (UserETags.matches(ifNoneMatch, UserETags.of(current.getVersion(), representation))) {
+                return UserETags.validators(ResponseEntity.status(HttpStatus.NOT_MODIFIED),
+                        current.getVersion(), current.getUpdatedAt(), representation).build();
+            }
+        }
+        // Spring resuelve aquí If-Modified-Since con Last-Modified (304 sin escribir el cuerpo).
+        // En JSON el cuerpo es el ya serializado de esta versión del usuario; CBOR/Smile pasan por su converter
         UserDto user = userService.getUserByExternalId(externalId);
-        return ResponseEntity.ok(user);
+        ResponseEntity.BodyBuilder response = UserETags.validators(ResponseEntity.ok(),
+                user.getVersion(), user.getUpdatedAt(), representation).contentType(representation);
+        if (!MediaType.APPLICATION_JSON.equals(representation)) {
+            return response.body(user);
+        }
+        return response.body(userJsonCache.toJson(user));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @GetMapping
-    public ResponseEntity<UserPageResponse> getAllUsers(Pageable pageable) {
-        return ResponseEntity.ok(userService.getAllUsers(pageable));
+    public ResponseEntity<?> getAllUsers(
+            Pageable pageable,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String total,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType representation = representation(accept);
+        Set<UserField> selected = UserField.parse(fields);
+        if (!selected.isEmpty()) {
+            // ?fields=externalId,email: solo esas columnas en el select y en el JSON
+            if (after != null) {
+                throw new BadRequestException("?fields= no se admite en modo cursor (?after=)");
+            }
+            UserFieldsPageResponse page = userService.getAllUsers(pageable, TotalCountMode.from(total), selected);
+            return negotiated(representation).eTag(UserETags.of(page, representation)).body(page);
+        }
+        if (after != null) {
+            // Modo cursor: ?after=<cursor>&size=N (after vacío para la primera página)
+            return withPageETag(userService.getUsersAfter(after, pageable.getPageSize()), representation);
+        }
+        // ?total=exact (por defecto), approximate (total en caché) o none (solo hasNext)
+        return withPageETag(userService.getAllUsers(pageable, TotalCountMode.from(total)), representation);
+    }
+
+    // Exportación completa en NDJSON (un UserDto por línea), escrita a medida que se lee la tabla
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        ObjectWriter writer = objectMapper.writerFor(UserDto.class);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            try {
+                userService.streamAllUsers(user -> writeLine(writer, out, user));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // CBOR o Smile si Accept los pide con al menos la misma preferencia que JSON; si no, JSON.
+    // La representación se fija aquí (y no en la negociación de Spring) porque el ETag depende de ella
+    private static MediaType representation(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType binary = null;
+        double binaryQuality = 0;
+        double json = 0;
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (BINARY_TYPES.stream().anyMatch(type::equalsTypeAndSubtype)) {
+                    if (type.getQualityValue() > binaryQuality) {
+                        binary = BINARY_TYPES.stream().filter(type::equalsTypeAndSubtype).findFirst().orElseThrow();
+                        binaryQuality = type.getQualityValue();
+                    }
+                } else if (type.includes(MediaType.APPLICATION_JSON)) {
+                    json = Math.max(json, type.getQualityValue());
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        return binary != null && binaryQuality >= json ? binary : MediaType.APPLICATION_JSON;
+    }
+
+    // El cuerpo depende de Accept: Vary para que las cachés intermedias no mezclen representaciones
+    private static ResponseEntity.BodyBuilder negotiated(MediaType representation) {
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).contentType(representation);
+    }
+
+    private static ResponseEntity<UserDto> withUserValidators(UserDto user, MediaType representation) {
+        return UserETags.validators(ResponseEntity.ok(), user.getVersion(), user.getUpdatedAt(), representation)
+                .contentType(representation)
+                .body(user);
+    }
+
+    // Spring compara el ETag con If-None-Match y responde 304 sin serializar la página
+    private static ResponseEntity<UserPageResponse> withPageETag(UserPageResponse page, MediaType representation) {
+        return negotiated(representation).eTag(UserETags.of(page, representation)).body(page);
+    }
+
+    private static void writeLine(ObjectWriter writer, OutputStream out, UserDto user) {
+        try {
+            out.write(writer.writeValueAsBytes(user));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
 }
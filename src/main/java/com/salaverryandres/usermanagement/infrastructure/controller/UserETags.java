@@ -0,0 +1,135 @@
+package com.salaverryandres.usermanagement.infrastructure.controller;
+
+import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.dto.UserFieldsPageResponse;
+import com.salaverryandres.usermanagement.application.dto.UserPageResponse;
+import com.salaverryandres.usermanagement.application.exception.PreconditionFailedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ETags fuertes de los usuarios: el de un usuario es su {@code version}; el de una página,
+ * un hash de los ids y versiones que contiene junto con los datos de paginación. Una página con
+ * {@code ?fields=} no lleva versiones, así que su hash se calcula sobre los valores devueltos.
+ * Cada representación tiene su propio ETag: JSON sin sufijo, CBOR y Smile con {@code -cbor} y {@code -smile},
+ * porque sus bytes son distintos aunque el usuario sea el mismo.
+ */
+final class UserETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private UserETags() {
+    }
+
+    static String of(Long version, MediaType representation) {
+        return version == null ? null : "\"" + version + suffix(representation) + "\"";
+    }
+
+    static String of(UserPageResponse page, MediaType representation) {
+        StringBuilder state = new StringBuilder()
+                .append(page.getCurrentPage()).append('/').append(page.getPageSize())
+                .append('/').append(page.getTotalElements()).append('/').append(page.getTotalPages())
+                .append('/').append(page.getNextCursor()).append('/').append(page.getHasNext());
+        for (UserDto user : page.getUsers()) {
+            state.append(';').append(user.getId()).append(':').append(user.getVersion());
+        }
+        return md5(state, representation);
+    }
+
+    static String of(UserFieldsPageResponse page, MediaType representation) {
+        StringBuilder state = new StringBuilder()
+                .append(page.getCurrentPage()).append('/').append(page.getPageSize())
+                .append('/').append(page.getTotalElements()).append('/').append(page.getTotalPages())
+                .append('/').append(page.getHasNext());
+        for (Map<String, Object> user : page.getUsers()) {
+            state.append(';').append(user);
+        }
+        return md5(state, representation);
+    }
+
+    /**
+     * Añade ETag y Last-Modified si se conocen, y Vary: Accept porque el cuerpo depende de la representación.
+     */
+    static <B extends ResponseEntity.HeadersBuilder<B>> B validators(B builder, Long version, Instant updatedAt,
+                                                                     MediaType representation) {
+        builder.varyBy(HttpHeaders.ACCEPT);
+        String etag = of(version, representation);
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        if (updatedAt != null) {
+            builder.lastModified(updatedAt);
+        }
+        return builder;
+    }
+
+    /**
+     * If-None-Match usa comparación débil: se ignora el prefijo W/ y "*" coincide con cualquier versión.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Versión esperada según If-Match (comparación fuerte); null si no hay cabecera o es "*".
+     * Un ETag que no es de una versión no puede coincidir con el usuario actual: 412.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith(WEAK_PREFIX) || tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match no corresponde a ninguna versión del usuario");
+        }
+        // La versión es la misma en todas las representaciones: se acepta el ETag de cualquiera
+        String value = tag.substring(1, tag.length() - 1);
+        for (MediaType type : List.of(MediaType.APPLICATION_CBOR, SMILE)) {
+            if (value.endsWith(suffix(type))) {
+                value = value.substring(0, value.length() - suffix(type).length());
+            }
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match no corresponde a ninguna versión del usuario");
+        }
+    }
+
+    private static String md5(CharSequence state, MediaType representation) {
+        return "\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8))
+                + suffix(representation) + "\"";
+    }
+
+    private static String suffix(MediaType representation) {
+        if (MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(representation)) {
+            return "-cbor";
+        }
+        if (SMILE.equalsTypeAndSubtype(representation)) {
+            return "-smile";
+        }
+        return "";
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
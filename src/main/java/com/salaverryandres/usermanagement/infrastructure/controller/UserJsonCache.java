@@ -0,0 +1,55 @@
+package com.salaverryandres.usermanagement.infrastructure.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.infrastructure.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * JSON ya codificado (UTF-8) de cada usuario para GET /api/users/{externalId}: los usuarios consultados
+ * a menudo se serializan una vez por versión y la respuesta escribe los bytes directamente.
+ * Se invalida junto con {@link CacheConfig#USERS_BY_EXTERNAL_ID} al modificar o borrar el usuario, y
+ * además solo se reutiliza si la versión guardada coincide con la del usuario que se va a devolver.
+ */
+@Component
+public class UserJsonCache {
+
+    private final ObjectWriter writer;
+    private final Cache cache;
+
+    public UserJsonCache(ObjectMapper objectMapper, CacheManager cacheManager) {
+        this.writer = objectMapper.writerFor(UserDto.class);
+        this.cache = cacheManager.getCache(CacheConfig.USER_JSON_BY_EXTERNAL_ID);
+    }
+
+    /**
+     * @return JSON del usuario; el array es compartido y no debe modificarse
+     */
+    public byte[] toJson(UserDto user) {
+        if (user.getExternalId() == null || user.getVersion() == null) {
+            return serialize(user); // sin versión no se puede saber si lo guardado sigue siendo válido
+        }
+        Entry cached = cache.get(user.getExternalId(), Entry.class);
+        if (cached != null && cached.version() == user.getVersion()) {
+            return cached.json();
+        }
+        byte[] json = serialize(user);
+        cache.put(user.getExternalId(), new Entry(user.getVersion(), json));
+        return json;
+    }
+
+    private byte[] serialize(UserDto user) {
+        try {
+            return writer.writeValueAsBytes(user);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el usuario " + user.getExternalId(), e);
+        }
+    }
+
+    private record Entry(long version, byte[] json) {
+    }
+}
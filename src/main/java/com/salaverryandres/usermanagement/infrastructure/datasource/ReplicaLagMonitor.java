@@ -0,0 +1,75 @@
+package com.salaverryandres.usermanagement.infrastructure.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Mide periódicamente el retraso de replicación de cada réplica y la retira del reparto de lecturas
+ * mientras supere {@code users.datasource.replicas.max-lag}, no responda o no esté recibiendo WAL del primario
+ * (la consulta devuelve null).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "users.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaLagMonitor {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource,
+                             @Value("${users.datasource.replicas.lag-query}") String lagQuery,
+                             @Value("${users.datasource.replicas.max-lag:5s}") Duration maxLag,
+                             MeterRegistry meterRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            Gauge.builder("db.replica.lag", replica, ReplicaRoutingDataSource.Replica::getLagSeconds)
+                    .tag("replica", replica.getName())
+                    .description("Retraso de replicación en segundos (NaN si no responde)")
+                    .register(meterRegistry);
+            Gauge.builder("db.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                    .tag("replica", replica.getName())
+                    .description("1 si la réplica recibe lecturas")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${users.datasource.replicas.check-interval-ms:5000}")
+    public void checkLag() {
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            try {
+                Double lag = new JdbcTemplate(replica.getDataSource()).queryForObject(lagQuery, Double.class);
+                if (lag == null) {
+                    // Sin conexión de replicación con el primario el retraso no se puede medir
+                    if (replica.isAvailable()) {
+                        log.warn("Réplica {} retirada de las lecturas: no recibe WAL del primario", replica.getName());
+                    }
+                    replica.update(Double.NaN, false);
+                    continue;
+                }
+                boolean available = lag <= maxLagSeconds;
+                if (available != replica.isAvailable()) {
+                    log.info("Réplica {} {} (retraso {}s)", replica.getName(),
+                            available ? "disponible" : "retirada de las lecturas", lag);
+                }
+                replica.update(lag, available);
+            } catch (RuntimeException e) {
+                if (replica.isAvailable()) {
+                    log.warn("No se pudo medir el retraso de la réplica {}: {}", replica.getName(), e.getMessage());
+                }
+                replica.update(Double.NaN, false);
+            }
+        }
+    }
+}
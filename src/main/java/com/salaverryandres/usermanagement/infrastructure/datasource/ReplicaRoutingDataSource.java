@@ -0,0 +1,92 @@
+package com.salaverryandres.usermanagement.infrastructure.datasource;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource de solo lectura: reparte las conexiones entre las réplicas disponibles (round-robin)
+ * y recurre al primario cuando ninguna lo está, ya sea por retraso de replicación o por error.
+ * Se usa como {@code readOnlyDataSource} de un {@code LazyConnectionDataSourceProxy}, de modo que
+ * solo lo reciben las transacciones marcadas como {@code readOnly}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    @Getter
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int size = replicas.size();
+        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.isAvailable()) {
+                continue;
+            }
+            try {
+                return replica.getDataSource().getConnection();
+            } catch (SQLException e) {
+                // Hasta la siguiente comprobación de retraso no se le vuelven a pedir conexiones
+                log.warn("Réplica {} sin conexión, se marca como no disponible: {}", replica.getName(), e.getMessage());
+                replica.markUnavailable();
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Las credenciales de las réplicas se fijan al configurarlas
+        return getConnection();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Réplica de lectura; empieza como no disponible hasta que se comprueba su retraso.
+     */
+    @Getter
+    public static class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available;
+        private volatile double lagSeconds = Double.NaN;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void update(double lagSeconds, boolean available) {
+            this.lagSeconds = lagSeconds;
+            this.available = available;
+        }
+
+        void markUnavailable() {
+            this.available = false;
+        }
+    }
+}
@@ -3,12 +3,18 @@ package com.salaverryandres.usermanagement.infrastructure.exception;
 import com.salaverryandres.usermanagement.application.exception.BadRequestException;
 import com.salaverryandres.usermanagement.application.exception.ChallengeRequiredException;
 import com.salaverryandres.usermanagement.application.exception.NotFoundException;
+import com.salaverryandres.usermanagement.application.exception.PreconditionFailedException;
+import com.salaverryandres.usermanagement.application.exception.RateLimitExceededException;
+import com.salaverryandres.usermanagement.application.exception.ServiceUnavailableException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
 
@@ -39,6 +45,32 @@ public class GlobalExceptionHandler {
         );
     }
 
+    // 412 - If-Match con una versión que ya no es la actual
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<?> handlePreconditionFailed(PreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(
+                Map.of(
+                        "timestamp", LocalDateTime.now(),
+                        "status", HttpStatus.PRECONDITION_FAILED.value(),
+                        "error", "Precondition Failed",
+                        "message", ex.getMessage()
+                )
+        );
+    }
+
+    // 409 - Otra petición modificó el usuario entre la lectura y el UPDATE (@Version)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                Map.of(
+                        "timestamp", LocalDateTime.now(),
+                        "status", HttpStatus.CONFLICT.value(),
+                        "error", "Conflict",
+                        "message", "El usuario ha sido modificado por otra petición; vuelve a leerlo e inténtalo de nuevo"
+                )
+        );
+    }
+
     // 403 - Acceso denegado
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<?> handleAccessDenied(AccessDeniedException ex) {
@@ -52,6 +84,32 @@ public class GlobalExceptionHandler {
         );
     }
 
+    // 503 - Cognito saturado o con el circuito abierto: el cliente debe reintentar más tarde
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<?> handleServiceUnavailable(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(ex.getRetryAfter())))
+                .body(Map.of(
+                        "timestamp", LocalDateTime.now(),
+                        "status", HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "error", "Service Unavailable",
+                        "message", ex.getMessage()
+                ));
+    }
+
+    // 429 - Demasiados intentos de login para el mismo email o IP
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<?> handleRateLimitExceeded(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(ex.getRetryAfter())))
+                .body(Map.of(
+                        "timestamp", LocalDateTime.now(),
+                        "status", HttpStatus.TOO_MANY_REQUESTS.value(),
+                        "error", "Too Many Requests",
+                        "message", ex.getMessage()
+                ));
+    }
+
     @ExceptionHandler(ChallengeRequiredException.class)
     public ResponseEntity<?> handleChallenge(ChallengeRequiredException ex) {
         return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body(
@@ -64,4 +122,9 @@ public class GlobalExceptionHandler {
         );
     }
 
+    // Retry-After va en segundos enteros; redondeamos hacia arriba y nunca menos de 1
+    private static long retryAfterSeconds(Duration retryAfter) {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
 }
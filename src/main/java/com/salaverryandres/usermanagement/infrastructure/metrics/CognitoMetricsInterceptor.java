@@ -0,0 +1,61 @@
+package com.salaverryandres.usermanagement.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide cada llamada a Cognito (incluidos los reintentos del SDK) en el timer cognito.requests,
+ * etiquetado por operación (AdminCreateUser, InitiateAuth...), resultado (success, error, throttled)
+ * y tipo de excepción de AWS. Se registra en los clientes síncrono y asíncrono.
+ */
+public class CognitoMetricsInterceptor implements ExecutionInterceptor {
+
+    static final String METRIC_NAME = "cognito.requests";
+    private static final ExecutionAttribute<Long> START_NANOS = new ExecutionAttribute<>("CognitoMetricsStartNanos");
+
+    private final MeterRegistry meterRegistry;
+
+    public CognitoMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        record(executionAttributes, "success", "none");
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        Throwable exception = context.exception();
+        boolean throttled = exception instanceof AwsServiceException awsException && awsException.isThrottlingException();
+        record(executionAttributes, throttled ? "throttled" : "error", exception.getClass().getSimpleName());
+    }
+
+    private void record(ExecutionAttributes executionAttributes, String outcome, String exception) {
+        Long start = executionAttributes.getAttribute(START_NANOS);
+        if (start == null) {
+            return;
+        }
+        Timer.builder(METRIC_NAME)
+                .description("Latencia de las llamadas a Cognito")
+                .tag("operation", executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME))
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,109 @@
+package com.salaverryandres.usermanagement.infrastructure.repository;
+
+import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.projection.UserField;
+import com.salaverryandres.usermanagement.domain.entity.UserEntity;
+import com.salaverryandres.usermanagement.domain.repository.UserRepository;
+import com.salaverryandres.usermanagement.domain.repository.UserRepositoryCustom;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fragmento de {@code UserRepository}: select con solo las columnas pedidas (Criteria sobre {@link Tuple}),
+ * sin hidratar entidades ni leer el resto de la fila, y la búsqueda por prefijo en SQL nativo.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    // Un OR de las tres columnas ordenado por id no puede usar los índices lower(col) text_pattern_ops
+    // (UserSearchIndexInitializer): PostgreSQL acaba recorriendo la tabla. Cada rama del UNION filtra y
+    // ordena por su columna indexada y se limita a las filas que puede necesitar la página; el resultado
+    // se ordena por la menor columna coincidente, que siempre está entre esas filas
+    private static final String SEARCH_IDS = "select m.id from ("
+            + "(select id, lower(name) as k from users where lower(name) like :prefix escape '!'"
+            + " order by lower(name), id limit :branchLimit)"
+            + " union all"
+            + " (select id, lower(last_name) as k from users where lower(last_name) like :prefix escape '!'"
+            + " order by lower(last_name), id limit :branchLimit)"
+            + " union all"
+            + " (select id, lower(email) as k from users where lower(email) like :prefix escape '!'"
+            + " order by lower(email), id limit :branchLimit)"
+            + ") m group by m.id order by min(m.k), m.id limit :limit offset :offset";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Map<String, Object>> findFields(Set<UserField> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<UserEntity> user = query.from(UserEntity.class);
+        query.multiselect(fields.stream()
+                .<Selection<?>>map(field -> user.get(field.getProperty()).alias(field.getProperty()))
+                .toList());
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        query.orderBy(QueryUtils.toOrders(sort, user, cb));
+
+        // Sin count(*): se pide una fila de más para saber si hay página siguiente
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = tuples.size() > pageable.getPageSize();
+
+        List<Map<String, Object>> rows = new ArrayList<>(Math.min(tuples.size(), pageable.getPageSize()));
+        for (Tuple tuple : tuples.subList(0, hasNext ? pageable.getPageSize() : tuples.size())) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (UserField field : fields) {
+                row.put(field.getProperty(), tuple.get(field.getProperty()));
+            }
+            rows.add(row);
+        }
+        return new SliceImpl<>(rows, pageable, hasNext);
+    }
+
+    @Override
+    public Slice<UserDto> searchByPrefix(String prefix, Pageable pageable) {
+        int size = pageable.getPageSize();
+        long offset = pageable.getOffset();
+        // Una fila de más para saber si hay página siguiente
+        List<Long> ids = entityManager.createNativeQuery(SEARCH_IDS, Long.class)
+                .setParameter("prefix", prefix)
+                .setParameter("branchLimit", offset + size + 1)
+                .setParameter("limit", size + 1)
+                .setParameter("offset", offset)
+                .getResultList();
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+        if (pageIds.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+
+        // Segunda consulta por PK con la proyección de los listados, reordenada como los ids
+        // (un usuario borrado entre las dos consultas simplemente no aparece)
+        Map<Long, UserDto> users = entityManager
+                .createQuery("select " + UserRepository.USER_DTO + " from UserEntity u where u.id in :ids", UserDto.class)
+                .setParameter("ids", pageIds)
+                .getResultStream()
+                .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+        return new SliceImpl<>(pageIds.stream().map(users::get).filter(Objects::nonNull).toList(), pageable, hasNext);
+    }
+}
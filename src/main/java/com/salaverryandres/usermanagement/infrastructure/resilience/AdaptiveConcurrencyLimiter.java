@@ -0,0 +1,90 @@
+package com.salaverryandres.usermanagement.infrastructure.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de llamadas simultáneas que se adapta con AIMD: sube de forma aditiva
+ * (+1 por cada "ventana" de llamadas completadas a tiempo) y baja de forma multiplicativa
+ * cuando la llamada es lenta o el backend indica sobrecarga.
+ * Si no hay hueco la llamada se rechaza al momento, nunca se encola.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double limit;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      Duration latencyThreshold, double backoffRatio) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * La llamada terminó sin señales de sobrecarga (incluye errores de negocio como credenciales incorrectas).
+     */
+    public void onSuccess(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else {
+            increase();
+        }
+    }
+
+    /**
+     * El backend devolvió throttling, error 5xx o timeout.
+     */
+    public void onOverload() {
+        inFlight.decrementAndGet();
+        decrease();
+    }
+
+    /**
+     * El permiso no llegó a usarse (p. ej. el circuit breaker rechazó la llamada).
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+    }
+
+    private synchronized void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
@@ -0,0 +1,119 @@
+package com.salaverryandres.usermanagement.infrastructure.resilience;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Circuit breaker por tasa de fallos sobre las últimas {@code windowSize} llamadas.
+ * Abierto: rechaza todo durante {@code openDuration}. Después deja pasar una única llamada
+ * de prueba (semiabierto): si va bien se cierra, si falla vuelve a abrirse.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final Duration openDuration;
+    private final Clock clock;
+    private final boolean[] window;
+
+    private State state = State.CLOSED;
+    private int windowPosition;
+    private int recordedCalls;
+    private int failures;
+    private Instant openUntil = Instant.MIN;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int failureRateThreshold, int windowSize, int minimumCalls, Duration openDuration) {
+        this(failureRateThreshold, windowSize, minimumCalls, openDuration, Clock.systemUTC());
+    }
+
+    CircuitBreaker(int failureRateThreshold, int windowSize, int minimumCalls, Duration openDuration, Clock clock) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.openDuration = openDuration;
+        this.clock = clock;
+        this.window = new boolean[windowSize];
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.instant().isBefore(openUntil)) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            reset();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (recordedCalls >= minimumCalls && failures * 100 >= failureRateThreshold * recordedCalls) {
+            open();
+        }
+    }
+
+    /**
+     * El permiso no llegó a usarse (p. ej. lo rechazó el limitador).
+     */
+    public synchronized void release() {
+        probeInFlight = false;
+    }
+
+    public synchronized Duration retryAfter() {
+        Duration remaining = Duration.between(clock.instant(), openUntil);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recordedCalls == window.length && window[windowPosition]) {
+            failures--;
+        }
+        window[windowPosition] = failure;
+        if (failure) {
+            failures++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+        recordedCalls = Math.min(recordedCalls + 1, window.length);
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntil = clock.instant().plus(openDuration);
+        probeInFlight = false;
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        probeInFlight = false;
+        windowPosition = 0;
+        recordedCalls = 0;
+        failures = 0;
+        Arrays.fill(window, false);
+    }
+}
@@ -0,0 +1,38 @@
+package com.salaverryandres.usermanagement.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Guarda los Jwt ya decodificados y validados por el decoder real. Un token repetido
+ * no vuelve a verificar la firma hasta que caduca.
+ * La clave es la huella del token completo (no el jti), porque aún no está verificado.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Cache<String, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize) {
+        this.delegate = delegate;
+        this.cache = TokenCaches.expiringAt(maximumSize, Jwt::getExpiresAt);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = TokenCaches.sha256(token);
+        Jwt cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Los errores no se cachean: un token inválido vuelve a pasar por el decoder
+        Jwt jwt = delegate.decode(token);
+        if (TokenCaches.isCacheable(jwt)) {
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+}
@@ -1,11 +1,13 @@
 package com.salaverryandres.usermanagement.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -14,13 +16,34 @@ public class JwtAuthConverter implements Converter<Jwt, Collection<GrantedAuthor
 
     private static final String GROUPS_CLAIM = "cognito:groups";
     private static final String ROLE_PREFIX = "ROLE_";
+    private static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private final JwtGrantedAuthoritiesConverter defaultConverter = new JwtGrantedAuthoritiesConverter();
+
+    // El mismo token llega en muchas peticiones: guardamos sus authorities hasta su exp
+    private final Cache<String, CachedAuthorities> cache;
+
+    public JwtAuthConverter() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public JwtAuthConverter(long maximumSize) {
+        this.cache = TokenCaches.expiringAt(maximumSize, CachedAuthorities::expiresAt);
+    }
 
     @Override
     public Collection<GrantedAuthority> convert(Jwt jwt) {
+        if (!TokenCaches.isCacheable(jwt)) {
+            return extractAuthorities(jwt);
+        }
+        return cache.get(cacheKey(jwt), key -> new CachedAuthorities(extractAuthorities(jwt), jwt.getExpiresAt()))
+                .authorities();
+    }
+
+    private List<GrantedAuthority> extractAuthorities(Jwt jwt) {
         List<GrantedAuthority> authorities = new ArrayList<>();
 
         // Extrae las authorities estándar (aunque Cognito no las suele usar)
-        JwtGrantedAuthoritiesConverter defaultConverter = new JwtGrantedAuthoritiesConverter();
         authorities.addAll(defaultConverter.convert(jwt));
 
         // Extrae grupos de Cognito y los convierte a roles Spring
@@ -31,6 +54,14 @@ public class JwtAuthConverter implements Converter<Jwt, Collection<GrantedAuthor
                     .toList());
         }
 
-        return authorities;
+        return List.copyOf(authorities);
+    }
+
+    // El Jwt ya viene validado, así que jti identifica al token; si no lo trae usamos su huella
+    private static String cacheKey(Jwt jwt) {
+        return jwt.getId() != null ? jwt.getId() : TokenCaches.sha256(jwt.getTokenValue());
+    }
+
+    private record CachedAuthorities(List<GrantedAuthority> authorities, Instant expiresAt) {
     }
 }
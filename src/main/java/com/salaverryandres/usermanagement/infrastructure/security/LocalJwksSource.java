@@ -0,0 +1,145 @@
+package com.salaverryandres.usermanagement.infrastructure.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Claves de Cognito cargadas desde una copia local del JWKS ({@code users.security.jwks.snapshot-file}).
+ * El arranque no depende de la red: se leen las claves del fichero y se refrescan en segundo plano,
+ * guardando cada versión descargada para el siguiente arranque. Un kid desconocido (rotación) lanza
+ * un refresco inmediato, limitado por {@code min-refetch-interval}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "users.security.jwks.snapshot-file")
+public class LocalJwksSource implements JWKSource<SecurityContext> {
+
+    private final Path snapshotFile;
+    private final String jwksUri;
+    private final Duration minRefetchInterval;
+    private final RestClient restClient;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile JWKSet jwkSet = new JWKSet();
+    private volatile Instant lastRefreshAttempt = Instant.EPOCH;
+
+    public LocalJwksSource(@Value("${users.security.jwks.snapshot-file}") Path snapshotFile,
+                           @Value("${users.security.jwks.uri}") String jwksUri,
+                           @Value("${users.security.jwks.min-refetch-interval:30s}") Duration minRefetchInterval,
+                           @Value("${users.security.jwks.timeout:2s}") Duration timeout) {
+        this.snapshotFile = snapshotFile;
+        this.jwksUri = jwksUri;
+        this.minRefetchInterval = minRefetchInterval;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    @PostConstruct
+    void loadSnapshot() {
+        if (!Files.isReadable(snapshotFile)) {
+            log.warn("No existe copia local del JWKS en {}; se descargará en segundo plano", snapshotFile);
+            return;
+        }
+        try {
+            jwkSet = JWKSet.parse(Files.readString(snapshotFile, StandardCharsets.UTF_8));
+            log.info("JWKS cargado desde {} ({} claves)", snapshotFile, jwkSet.getKeys().size());
+        } catch (IOException | ParseException e) {
+            log.warn("Copia local del JWKS ilegible en {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        List<JWK> keys = jwkSelector.select(jwkSet);
+        if (keys.isEmpty()) {
+            // kid desconocido: probablemente Cognito ha rotado las claves. No bloqueamos la petición
+            refreshAsync();
+        }
+        return keys;
+    }
+
+    // El primer refresco se lanza al arrancar, sin esperarlo
+    @Scheduled(initialDelay = 0, fixedDelayString = "${users.security.jwks.refresh-interval-ms:3600000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    private void refreshAsync() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return; // ya hay un refresco en curso
+        }
+        // El intervalo se comprueba con el refresco ya reservado: una ráfaga de kids desconocidos
+        // no puede lanzar una segunda descarga justo después de que termine la primera
+        if (Instant.now().isBefore(lastRefreshAttempt.plus(minRefetchInterval))) {
+            refreshing.set(false);
+            return;
+        }
+        lastRefreshAttempt = Instant.now();
+        Thread.ofVirtual().name("jwks-refresh").start(this::download);
+    }
+
+    private void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return; // ya hay un refresco en curso
+        }
+        lastRefreshAttempt = Instant.now();
+        download();
+    }
+
+    // Con el refresco ya reservado (refreshing); lo libera al terminar
+    private void download() {
+        try {
+            String body = restClient.get().uri(jwksUri).retrieve().body(String.class);
+            JWKSet downloaded = JWKSet.parse(body);
+            if (downloaded.getKeys().isEmpty()) {
+                log.warn("El JWKS descargado de {} no contiene claves; se conservan las actuales", jwksUri);
+                return;
+            }
+            jwkSet = downloaded;
+            saveSnapshot(downloaded);
+        } catch (Exception e) {
+            // Seguimos validando con las claves que ya teníamos
+            log.warn("No se pudo refrescar el JWKS desde {}: {}", jwksUri, e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private void saveSnapshot(JWKSet downloaded) {
+        try {
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "jwks", ".tmp");
+            // toString() serializa solo la parte pública de las claves
+            Files.writeString(tmp, downloaded.toString(), StandardCharsets.UTF_8);
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("No se pudo guardar la copia local del JWKS en {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+}
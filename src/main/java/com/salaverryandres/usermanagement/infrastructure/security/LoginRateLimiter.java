@@ -0,0 +1,91 @@
+package com.salaverryandres.usermanagement.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.salaverryandres.usermanagement.application.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita los intentos de login por email y por IP antes de llamar a Cognito.
+ * Cada clave es un token bucket con GCRA: un único AtomicLong con el "instante teórico
+ * de llegada" que se actualiza con CAS, sin locks. Las claves viven en una caché acotada
+ * que descarta las inactivas.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Bucket emailBuckets;
+    private final Bucket ipBuckets;
+    private final Counter emailRejections;
+    private final Counter ipRejections;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${users.login-rate-limit.email.per-minute:5}") int emailPerMinute,
+                            @Value("${users.login-rate-limit.email.burst:5}") int emailBurst,
+                            @Value("${users.login-rate-limit.ip.per-minute:60}") int ipPerMinute,
+                            @Value("${users.login-rate-limit.ip.burst:20}") int ipBurst,
+                            @Value("${users.login-rate-limit.maximum-keys:100000}") long maximumKeys,
+                            @Value("${users.login-rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        this.emailBuckets = new Bucket(emailPerMinute, emailBurst, maximumKeys, idleTimeout);
+        this.ipBuckets = new Bucket(ipPerMinute, ipBurst, maximumKeys, idleTimeout);
+        this.emailRejections = Counter.builder("auth.login.throttled").tag("key", "email").register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.login.throttled").tag("key", "ip").register(meterRegistry);
+    }
+
+    public void acquire(String email, String clientIp) {
+        long now = System.nanoTime();
+
+        long ipWait = ipBuckets.tryAcquire(clientIp, now);
+        if (ipWait > 0) {
+            ipRejections.increment();
+            throw new RateLimitExceededException("Demasiados intentos de inicio de sesión desde esta IP",
+                    Duration.ofNanos(ipWait));
+        }
+
+        long emailWait = emailBuckets.tryAcquire(email.trim().toLowerCase(Locale.ROOT), now);
+        if (emailWait > 0) {
+            emailRejections.increment();
+            throw new RateLimitExceededException("Demasiados intentos de inicio de sesión para este usuario",
+                    Duration.ofNanos(emailWait));
+        }
+    }
+
+    private static final class Bucket {
+
+        private final long emissionIntervalNanos;
+        private final long toleranceNanos;
+        private final Cache<String, AtomicLong> arrivals;
+
+        Bucket(int perMinute, int burst, long maximumKeys, Duration idleTimeout) {
+            this.emissionIntervalNanos = Duration.ofMinutes(1).toNanos() / perMinute;
+            this.toleranceNanos = emissionIntervalNanos * (burst - 1);
+            this.arrivals = Caffeine.newBuilder()
+                    .maximumSize(maximumKeys)
+                    .expireAfterAccess(idleTimeout)
+                    .build();
+        }
+
+        // Devuelve 0 si se admite el intento, o los nanosegundos que faltan para el siguiente
+        long tryAcquire(String key, long now) {
+            AtomicLong tat = arrivals.get(key, k -> new AtomicLong(now));
+            while (true) {
+                long current = tat.get();
+                long theoretical = Math.max(current, now);
+                long wait = theoretical - toleranceNanos - now;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (tat.compareAndSet(current, theoretical + emissionIntervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import com.salaverryandres.usermanagement.application.dto.LoginResponseDto;
+import com.salaverryandres.usermanagement.domain.service.CognitoAsyncService;
+import com.salaverryandres.usermanagement.domain.service.CognitoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * {@link CognitoAsyncService} sobre el {@link CognitoService} síncrono, usado cuando el cliente
+ * asíncrono está desactivado: la llamada se hace en el hilo actual y se devuelve un futuro ya completado.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "aws.cognito.async.enabled", havingValue = "false", matchIfMissing = true)
+public class CognitoAsyncServiceAdapter implements CognitoAsyncService {
+
+    private final CognitoService cognitoService;
+
+    @Override
+    public CompletableFuture<String> registerUser(String name, String email, String phone) {
+        return call(() -> cognitoService.registerUser(name, email, phone));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateUserAttributes(String username, String name, String email, String phone) {
+        return run(() -> cognitoService.updateUserAttributes(username, name, email, phone));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteUser(String username) {
+        return run(() -> cognitoService.deleteUser(username));
+    }
+
+    @Override
+    public CompletableFuture<Void> addUserToGroup(String username, String groupName) {
+        return run(() -> cognitoService.addUserToGroup(username, groupName));
+    }
+
+    @Override
+    public CompletableFuture<LoginResponseDto> login(String email, String password) {
+        return call(() -> cognitoService.login(email, password));
+    }
+
+    @Override
+    public CompletableFuture<LoginResponseDto> respondToNewPasswordChallenge(String email, String newPassword, String session) {
+        return call(() -> cognitoService.respondToNewPasswordChallenge(email, newPassword, session));
+    }
+
+    @Override
+    public CompletableFuture<Void> logout(String username) {
+        return run(() -> cognitoService.logout(username));
+    }
+
+    private static CompletableFuture<Void> run(Runnable action) {
+        return call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static <T> CompletableFuture<T> call(Supplier<T> action) {
+        try {
+            return CompletableFuture.completedFuture(action.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import com.salaverryandres.usermanagement.application.dto.LoginResponseDto;
+import com.salaverryandres.usermanagement.domain.service.CognitoAsyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Implementación sobre el cliente asíncrono del SDK: ningún hilo queda bloqueado
+ * mientras dura la llamada a AWS.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "aws.cognito.async.enabled", havingValue = "true")
+public class CognitoAsyncServiceImpl implements CognitoAsyncService {
+
+    private final CognitoIdentityProviderAsyncClient cognitoAsyncClient;
+
+    @Value("${aws.cognito.user-pool-id}")
+    private String userPoolId;
+
+    @Value("${aws.cognito.client-id}")
+    private String clientId;
+
+    @Override
+    public CompletableFuture<String> registerUser(String name, String email, String phone) {
+        return cognitoAsyncClient.adminCreateUser(CognitoRequests.createUser(userPoolId, name, email, phone))
+                .thenCompose(response -> {
+                    String sub = CognitoRequests.extractSub(response);
+                    return cognitoAsyncClient.adminUpdateUserAttributes(CognitoRequests.markVerified(userPoolId, email, phone))
+                            .thenApply(ignored -> sub);
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> updateUserAttributes(String username, String name, String email, String phone) {
+        return cognitoAsyncClient.adminUpdateUserAttributes(
+                        CognitoRequests.updateAttributes(userPoolId, username, name, email, phone))
+                .thenAccept(ignored -> {
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteUser(String username) {
+        return cognitoAsyncClient.adminDeleteUser(CognitoRequests.deleteUser(userPoolId, username))
+                .thenAccept(ignored -> {
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> addUserToGroup(String username, String groupName) {
+        return cognitoAsyncClient.adminAddUserToGroup(CognitoRequests.addUserToGroup(userPoolId, username, groupName))
+                .thenAccept(ignored -> {
+                });
+    }
+
+    @Override
+    public CompletableFuture<LoginResponseDto> login(String email, String password) {
+        return cognitoAsyncClient.initiateAuth(CognitoRequests.login(clientId, email, password))
+                .thenApply(CognitoRequests::toLoginResponse)
+                .exceptionally(rethrow(CognitoRequests::loginError));
+    }
+
+    @Override
+    public CompletableFuture<LoginResponseDto> respondToNewPasswordChallenge(String email, String newPassword, String session) {
+        return cognitoAsyncClient.respondToAuthChallenge(
+                        CognitoRequests.newPasswordChallenge(clientId, email, newPassword, session))
+                .thenApply(response -> CognitoRequests.toLoginResponse(response.authenticationResult()))
+                .exceptionally(rethrow(CognitoRequests::changePasswordError));
+    }
+
+    @Override
+    public CompletableFuture<Void> logout(String username) {
+        return cognitoAsyncClient.adminUserGlobalSignOut(CognitoRequests.globalSignOut(userPoolId, username))
+                .<Void>thenApply(ignored -> null)
+                .exceptionally(rethrow(CognitoRequests::logoutError));
+    }
+
+    // Traduce el error del SDK (envuelto en CompletionException) a la excepción de aplicación
+    private static <T> Function<Throwable, T> rethrow(Function<Throwable, RuntimeException> translator) {
+        return error -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            throw translator.apply(cause);
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca la implementación de {@link com.salaverryandres.usermanagement.domain.service.CognitoService}
+ * que habla directamente con Cognito. El resto de la aplicación recibe {@link ResilientCognitoService},
+ * que la envuelve.
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER})
+public @interface CognitoBackend {
+}
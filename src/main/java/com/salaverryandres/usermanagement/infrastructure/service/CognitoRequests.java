@@ -0,0 +1,220 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import com.salaverryandres.usermanagement.application.dto.LoginResponseDto;
+import com.salaverryandres.usermanagement.application.exception.BadRequestException;
+import com.salaverryandres.usermanagement.application.exception.ChallengeRequiredException;
+import com.salaverryandres.usermanagement.application.exception.NotFoundException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminAddUserToGroupRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminDeleteUserAttributesRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminDeleteUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminUpdateUserAttributesRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminUserGlobalSignOutRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AuthFlowType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AuthenticationResultType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ChallengeNameType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.DeliveryMediumType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InitiateAuthRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InitiateAuthResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InvalidPasswordException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.NotAuthorizedException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.RespondToAuthChallengeRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Construcción de peticiones y traducción de respuestas/errores de Cognito,
+ * compartida por el cliente síncrono y el asíncrono.
+ */
+final class CognitoRequests {
+
+    private CognitoRequests() {
+    }
+
+    static AdminCreateUserRequest createUser(String userPoolId, String name, String email, String phone) {
+        AdminCreateUserRequest.Builder requestBuilder = AdminCreateUserRequest.builder()
+                .userPoolId(userPoolId)
+                .username(email)
+                .desiredDeliveryMediums(DeliveryMediumType.EMAIL)
+                .userAttributes(
+                        AttributeType.builder().name("name").value(name).build(),
+                        AttributeType.builder().name("email").value(email).build()
+                );
+
+        if (phone != null && !phone.isBlank()) {
+            requestBuilder.userAttributes(
+                    AttributeType.builder().name("phone_number").value(phone).build()
+            );
+        }
+        return requestBuilder.build();
+    }
+
+    static String extractSub(AdminCreateUserResponse response) {
+        return response.user().attributes().stream()
+                .filter(attr -> "sub".equals(attr.name()))
+                .findFirst()
+                .map(AttributeType::value)
+                .orElseThrow(() -> new IllegalStateException("No se encontró el sub en Cognito"));
+    }
+
+    static AdminUpdateUserAttributesRequest markVerified(String userPoolId, String email, String phone) {
+        List<AttributeType> verifiedAttributes = new ArrayList<>();
+        verifiedAttributes.add(AttributeType.builder().name("email_verified").value("true").build());
+
+        if (phone != null && !phone.isBlank()) {
+            verifiedAttributes.add(AttributeType.builder().name("phone_number_verified").value("true").build());
+        }
+
+        return AdminUpdateUserAttributesRequest.builder()
+                .userPoolId(userPoolId)
+                .username(email)
+                .userAttributes(verifiedAttributes)
+                .build();
+    }
+
+    static AdminUpdateUserAttributesRequest updateAttributes(String userPoolId, String username,
+                                                             String name, String email, String phone) {
+        List<AttributeType> attributes = new ArrayList<>();
+        attributes.add(AttributeType.builder().name("name").value(name).build());
+        attributes.add(AttributeType.builder().name("email").value(email).build());
+
+        if (phone != null && !phone.isBlank()) {
+            attributes.add(AttributeType.builder().name("phone_number").value(phone).build());
+        }
+
+        return AdminUpdateUserAttributesRequest.builder()
+                .userPoolId(userPoolId)
+                .username(username)
+                .userAttributes(attributes)
+                .build();
+    }
+
+    static AdminUpdateUserAttributesRequest updateAttributes(String userPoolId, String username,
+                                                             Map<String, String> changes) {
+        List<AttributeType> attributes = new ArrayList<>();
+        changes.forEach((name, value) -> attributes.add(AttributeType.builder().name(name).value(value).build()));
+
+        return AdminUpdateUserAttributesRequest.builder()
+                .userPoolId(userPoolId)
+                .username(username)
+                .userAttributes(attributes)
+                .build();
+    }
+
+    static AdminDeleteUserAttributesRequest deleteAttributes(String userPoolId, String username,
+                                                             List<String> attributeNames) {
+        return AdminDeleteUserAttributesRequest.builder()
+                .userPoolId(userPoolId)
+                .username(username)
+                .userAttributeNames(attributeNames)
+                .build();
+    }
+
+    static AdminDeleteUserRequest deleteUser(String userPoolId, String username) {
+        return AdminDeleteUserRequest.builder()
+                .userPoolId(userPoolId)
+                .username(username)
+                .build();
+    }
+
+    static AdminAddUserToGroupRequest addUserToGroup(String userPoolId, String username, String groupName) {
+        return AdminAddUserToGroupRequest.builder()
+                .userPoolId(userPoolId)
+                .username(username)
+                .groupName(groupName)
+                .build();
+    }
+
+    static InitiateAuthRequest login(String clientId, String email, String password) {
+        return InitiateAuthRequest.builder()
+                .authFlow(AuthFlowType.USER_PASSWORD_AUTH)
+                .authParameters(Map.of(
+                        "USERNAME", email,
+                        "PASSWORD", password
+                ))
+                .clientId(clientId)
+                .build();
+    }
+
+    static RespondToAuthChallengeRequest newPasswordChallenge(String clientId, String email,
+                                                              String newPassword, String session) {
+        return RespondToAuthChallengeRequest.builder()
+                .challengeName(ChallengeNameType.NEW_PASSWORD_REQUIRED)
+                .clientId(clientId)
+                .challengeResponses(Map.of(
+                        "USERNAME", email,
+                        "NEW_PASSWORD", newPassword
+                ))
+                .session(session)
+                .build();
+    }
+
+    static AdminUserGlobalSignOutRequest globalSignOut(String userPoolId, String username) {
+        return AdminUserGlobalSignOutRequest.builder()
+                .userPoolId(userPoolId)
+                .username(username)
+                .build();
+    }
+
+    static LoginResponseDto toLoginResponse(InitiateAuthResponse response) {
+        if (response.challengeName() == ChallengeNameType.NEW_PASSWORD_REQUIRED) {
+            // Devolvemos info útil para el frontend/backend
+            throw new ChallengeRequiredException(
+                    ChallengeNameType.NEW_PASSWORD_REQUIRED.name(),
+                    response.session(),
+                    "Se requiere cambiar la contraseña"
+            );
+        }
+
+        AuthenticationResultType result = response.authenticationResult();
+        if (result == null) {
+            throw new RuntimeException("Error inesperado: no se recibió token de autenticación");
+        }
+        return toLoginResponse(result);
+    }
+
+    static LoginResponseDto toLoginResponse(AuthenticationResultType result) {
+        return LoginResponseDto.builder()
+                .accessToken(result.accessToken())
+                .idToken(result.idToken())
+                .refreshToken(result.refreshToken())
+                .expiresIn(result.expiresIn())
+                .tokenType(result.tokenType())
+                .build();
+    }
+
+    static RuntimeException loginError(Throwable e) {
+        if (e instanceof ChallengeRequiredException challenge) {
+            return challenge;
+        }
+        if (e instanceof NotAuthorizedException) {
+            return new BadRequestException("Credenciales incorrectas");
+        }
+        if (e instanceof UserNotFoundException) {
+            return new NotFoundException("Usuario no encontrado");
+        }
+        return new RuntimeException("Error al iniciar sesión", e);
+    }
+
+    static RuntimeException changePasswordError(Throwable e) {
+        if (e instanceof NotAuthorizedException) {
+            return new BadRequestException("Credenciales inválidas");
+        }
+        if (e instanceof InvalidPasswordException) {
+            return new BadRequestException("La nueva contraseña no cumple con los requisitos de seguridad");
+        }
+        return new RuntimeException("Error al cambiar la contraseña", e);
+    }
+
+    static RuntimeException logoutError(Throwable e) {
+        if (e instanceof UserNotFoundException) {
+            return new NotFoundException("Usuario no encontrado");
+        }
+        return new BadRequestException("Error al cerrar sesión", e);
+    }
+}
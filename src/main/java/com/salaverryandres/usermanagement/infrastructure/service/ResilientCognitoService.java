@@ -0,0 +1,144 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import com.salaverryandres.usermanagement.application.dto.LoginResponseDto;
+import com.salaverryandres.usermanagement.application.exception.ServiceUnavailableException;
+import com.salaverryandres.usermanagement.domain.service.CognitoService;
+import com.salaverryandres.usermanagement.infrastructure.resilience.AdaptiveConcurrencyLimiter;
+import com.salaverryandres.usermanagement.infrastructure.resilience.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * {@link CognitoService} protegido frente a un Cognito lento o que limita peticiones:
+ * <ul>
+ *     <li>Dos bulkheads con límite adaptativo: autenticación (login, cambio de contraseña, logout)
+ *     y administración (alta, modificación, borrado, grupos). Una importación masiva no deja sin hueco a los logins.</li>
+ *     <li>Un circuit breaker por bulkhead: si Cognito está caído o limitando esas llamadas, se deja de llamar
+ *     durante un tiempo. El throttling de las operaciones de administración no corta los logins.</li>
+ * </ul>
+ * Cuando no hay hueco se responde al momento con {@link ServiceUnavailableException} (503 + Retry-After)
+ * en lugar de dejar el hilo esperando.
+ */
+@Slf4j
+public class ResilientCognitoService implements CognitoService {
+
+    private static final Duration LIMIT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final CognitoService delegate;
+    private final AdaptiveConcurrencyLimiter authBulkhead;
+    private final CircuitBreaker authCircuitBreaker;
+    private final AdaptiveConcurrencyLimiter adminBulkhead;
+    private final CircuitBreaker adminCircuitBreaker;
+
+    public ResilientCognitoService(CognitoService delegate,
+                                   AdaptiveConcurrencyLimiter authBulkhead,
+                                   CircuitBreaker authCircuitBreaker,
+                                   AdaptiveConcurrencyLimiter adminBulkhead,
+                                   CircuitBreaker adminCircuitBreaker) {
+        this.delegate = delegate;
+        this.authBulkhead = authBulkhead;
+        this.authCircuitBreaker = authCircuitBreaker;
+        this.adminBulkhead = adminBulkhead;
+        this.adminCircuitBreaker = adminCircuitBreaker;
+    }
+
+    @Override
+    public String registerUser(String name, String email, String phone) {
+        return call(adminBulkhead, adminCircuitBreaker, () -> delegate.registerUser(name, email, phone));
+    }
+
+    @Override
+    public void updateUserAttributes(String username, String name, String email, String phone) {
+        run(adminBulkhead, adminCircuitBreaker, () -> delegate.updateUserAttributes(username, name, email, phone));
+    }
+
+    @Override
+    public void updateUserAttributes(String username, Map<String, String> attributes) {
+        run(adminBulkhead, adminCircuitBreaker, () -> delegate.updateUserAttributes(username, attributes));
+    }
+
+    @Override
+    public void deleteUserAttributes(String username, List<String> attributeNames) {
+        run(adminBulkhead, adminCircuitBreaker, () -> delegate.deleteUserAttributes(username, attributeNames));
+    }
+
+    @Override
+    public void deleteUser(String username) {
+        run(adminBulkhead, adminCircuitBreaker, () -> delegate.deleteUser(username));
+    }
+
+    @Override
+    public void addUserToGroup(String username, String groupName) {
+        run(adminBulkhead, adminCircuitBreaker, () -> delegate.addUserToGroup(username, groupName));
+    }
+
+    @Override
+    public LoginResponseDto login(String email, String password) {
+        return call(authBulkhead, authCircuitBreaker, () -> delegate.login(email, password));
+    }
+
+    @Override
+    public LoginResponseDto respondToNewPasswordChallenge(String email, String newPassword, String session) {
+        return call(authBulkhead, authCircuitBreaker, () -> delegate.respondToNewPasswordChallenge(email, newPassword, session));
+    }
+
+    @Override
+    public void logout(String username) {
+        run(authBulkhead, authCircuitBreaker, () -> delegate.logout(username));
+    }
+
+    private void run(AdaptiveConcurrencyLimiter bulkhead, CircuitBreaker circuitBreaker, Runnable action) {
+        call(bulkhead, circuitBreaker, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> T call(AdaptiveConcurrencyLimiter bulkhead, CircuitBreaker circuitBreaker, Supplier<T> action) {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new ServiceUnavailableException("Cognito no está disponible temporalmente", circuitBreaker.retryAfter());
+        }
+        if (!bulkhead.tryAcquire()) {
+            circuitBreaker.release();
+            log.warn("Llamada a Cognito rechazada: bulkhead {} lleno ({} en curso)", bulkhead.getName(), bulkhead.getInFlight());
+            throw new ServiceUnavailableException("Demasiadas peticiones a Cognito en curso", LIMIT_RETRY_AFTER);
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = action.get();
+            bulkhead.onSuccess(System.nanoTime() - start);
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isOverload(e)) {
+                bulkhead.onOverload();
+                circuitBreaker.onFailure();
+            } else {
+                // Errores de negocio (credenciales, usuario existente...): Cognito responde con normalidad
+                bulkhead.onSuccess(System.nanoTime() - start);
+                circuitBreaker.onSuccess();
+            }
+            throw e;
+        }
+    }
+
+    // CognitoServiceImpl traduce algunas excepciones, así que se revisa toda la cadena de causas
+    static boolean isOverload(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof AwsServiceException aws) {
+                return aws.isThrottlingException() || aws.statusCode() >= 500;
+            }
+            if (t instanceof SdkClientException) {
+                return true; // timeouts y errores de red
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,58 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import com.salaverryandres.usermanagement.domain.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Total de usuarios para los listados con {@code ?total=approximate}: se recalcula con count(*) en
+ * segundo plano y entre medias se ajusta con las altas y bajas confirmadas. Un alta que coincida con
+ * el recálculo puede contarse dos veces o ninguna; el siguiente recálculo lo corrige.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCountCache {
+
+    private static final long UNKNOWN = -1;
+
+    private final UserRepository userRepository;
+    private final AtomicLong count = new AtomicLong(UNKNOWN);
+
+    public long get() {
+        long value = count.get();
+        return value == UNKNOWN ? refresh() : value;
+    }
+
+    @Scheduled(initialDelayString = "${users.count-cache.refresh-interval-ms:60000}",
+            fixedDelayString = "${users.count-cache.refresh-interval-ms:60000}")
+    public long refresh() {
+        long total = userRepository.count();
+        count.set(total);
+        return total;
+    }
+
+    /**
+     * Suma {@code delta} al total cuando la transacción en curso se confirma (o ya, si no hay ninguna).
+     */
+    public void adjust(long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(delta);
+                }
+            });
+        } else {
+            apply(delta);
+        }
+    }
+
+    private void apply(long delta) {
+        count.updateAndGet(value -> value == UNKNOWN ? UNKNOWN : Math.max(0, value + delta));
+    }
+}
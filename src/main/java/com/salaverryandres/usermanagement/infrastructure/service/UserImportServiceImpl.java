@@ -0,0 +1,323 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import com.salaverryandres.usermanagement.application.dto.UserCreateRequestDto;
+import com.salaverryandres.usermanagement.application.dto.UserImportResultDto;
+import com.salaverryandres.usermanagement.application.dto.UserImportRowResultDto;
+import com.salaverryandres.usermanagement.application.exception.BadRequestException;
+import com.salaverryandres.usermanagement.application.exception.ServiceUnavailableException;
+import com.salaverryandres.usermanagement.application.mapper.UserMapper;
+import com.salaverryandres.usermanagement.domain.entity.UserEntity;
+import com.salaverryandres.usermanagement.domain.repository.UserRepository;
+import com.salaverryandres.usermanagement.domain.service.CognitoService;
+import com.salaverryandres.usermanagement.domain.service.UserImportService;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.CognitoIdentityProviderException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InvalidParameterException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UsernameExistsException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    // Espera mínima si el rechazo no trae Retry-After (circuito semiabierto con la prueba en curso)
+    private static final Duration MIN_BACKOFF = Duration.ofMillis(100);
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final CognitoService cognitoService;
+    private final UserCountCache userCountCache;
+    private final Validator validator;
+    private final ExecutorService cognitoExecutor;
+    private final Semaphore cognitoPermits;
+    private final int batchSize;
+    private final int maxRows;
+    private final Duration cognitoMaxWait;
+
+    public UserImportServiceImpl(UserRepository userRepository,
+                                 UserMapper userMapper,
+                                 CognitoService cognitoService,
+                                 UserCountCache userCountCache,
+                                 Validator validator,
+                                 @Value("${users.import.cognito-parallelism:8}") int cognitoParallelism,
+                                 @Value("${users.import.batch-size:500}") int batchSize,
+                                 @Value("${users.import.max-rows:10000}") int maxRows,
+                                 @Value("${users.import.cognito-max-wait:60s}") Duration cognitoMaxWait,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.cognitoService = cognitoService;
+        this.userCountCache = userCountCache;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+        this.cognitoMaxWait = cognitoMaxWait;
+        // El máximo de llamadas simultáneas a Cognito lo fija el semáforo, no el número de hilos.
+        // En modo virtual, un hilo por fila: los hilos virtuales no se reutilizan en un pool, y los que esperan
+        // permiso o respuesta de Cognito no ocupan hilos del sistema
+        this.cognitoPermits = new Semaphore(cognitoParallelism);
+        this.cognitoExecutor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cognito-import-", 0).factory())
+                : Executors.newFixedThreadPool(cognitoParallelism,
+                        Thread.ofPlatform().name("cognito-import-", 0).daemon(true).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cognitoExecutor.shutdown();
+    }
+
+    @Override
+    public UserImportResultDto importUsers(List<UserCreateRequestDto> rows) {
+        if (rows == null || rows.isEmpty()) {
+            throw new BadRequestException("No hay usuarios que importar");
+        }
+        if (rows.size() > maxRows) {
+            throw new BadRequestException("La importación supera el máximo de " + maxRows + " filas");
+        }
+
+        UserImportRowResultDto[] results = new UserImportRowResultDto[rows.size()];
+
+        // 1. Validar y descartar duplicados antes de tocar Cognito
+        List<Integer> valid = validate(rows, results);
+
+        // 2. Aprovisionar en Cognito en paralelo, limitado por el tamaño del pool
+        Map<Integer, CompletableFuture<String>> provisioning = new LinkedHashMap<>();
+        for (int index : valid) {
+            UserCreateRequestDto row = rows.get(index);
+            provisioning.put(index, CompletableFuture.supplyAsync(() -> provision(row), cognitoExecutor));
+        }
+
+        List<Integer> provisionedIndexes = new ArrayList<>();
+        List<UserEntity> provisioned = new ArrayList<>();
+        provisioning.forEach((index, future) -> {
+            UserCreateRequestDto row = rows.get(index);
+            try {
+                UserEntity entity = userMapper.toEntity(row);
+                entity.setRole(UserServiceImpl.GROUP_NAME);
+                entity.setExternalId(future.join());
+                provisioned.add(entity);
+                provisionedIndexes.add(index);
+            } catch (CompletionException e) {
+                results[index] = failed(index, row.getEmail(), cognitoError(e.getCause()));
+            }
+        });
+
+        // 3. Insertar por lotes: los ids salen del sequence pooled sin ida y vuelta por fila, así que
+        // Hibernate agrupa los INSERT en lotes JDBC (hibernate.jdbc.batch_size)
+        for (int from = 0; from < provisioned.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, provisioned.size());
+            List<UserEntity> chunk = provisioned.subList(from, to);
+            List<Integer> chunkIndexes = provisionedIndexes.subList(from, to);
+            try {
+                userRepository.saveAll(chunk);
+                for (int i = 0; i < chunk.size(); i++) {
+                    results[chunkIndexes.get(i)] = created(chunkIndexes.get(i), chunk.get(i));
+                }
+            } catch (DataAccessException e) {
+                // Una fila mala no tumba el lote: se reintenta fila a fila y solo fallan las que no entran
+                log.warn("Error al insertar un lote de {} usuarios; se reintenta fila a fila: {}", chunk.size(), e.getMessage());
+                for (int i = 0; i < chunk.size(); i++) {
+                    results[chunkIndexes.get(i)] = saveOne(chunkIndexes.get(i), chunk.get(i));
+                }
+            }
+        }
+
+        List<UserImportRowResultDto> report = Arrays.asList(results);
+        int created = (int) report.stream()
+                .filter(result -> result.getStatus() == UserImportRowResultDto.Status.CREATED)
+                .count();
+        userCountCache.adjust(created);
+        return UserImportResultDto.builder()
+                .total(rows.size())
+                .created(created)
+                .failed(rows.size() - created)
+                .rows(report)
+                .build();
+    }
+
+    private List<Integer> validate(List<UserCreateRequestDto> rows, UserImportRowResultDto[] results) {
+        Set<String> existing = findExistingEmails(rows);
+        Set<String> seen = new HashSet<>();
+        List<Integer> valid = new ArrayList<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            UserCreateRequestDto row = rows.get(i);
+            // El cuerpo JSON llega como lista sin @Valid y el CSV no pasa por Bean Validation:
+            // cada fila se valida aquí con las mismas restricciones que POST /api/users
+            String invalid = row == null ? "Fila vacía" : violations(row);
+            if (invalid != null) {
+                results[i] = failed(i, row == null ? null : row.getEmail(), invalid);
+            } else if (!seen.add(row.getEmail().toLowerCase(Locale.ROOT))) {
+                results[i] = failed(i, row.getEmail(), "Email duplicado en el fichero");
+            } else if (existing.contains(row.getEmail().toLowerCase(Locale.ROOT))) {
+                results[i] = failed(i, row.getEmail(), "El email ya está registrado");
+            } else {
+                valid.add(i);
+            }
+        }
+        return valid;
+    }
+
+    // null si la fila es válida; si no, los campos incorrectos y el motivo
+    private String violations(UserCreateRequestDto row) {
+        Set<ConstraintViolation<UserCreateRequestDto>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return "Campos inválidos: " + violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    // En minúsculas, como los devuelve el repositorio
+    private Set<String> findExistingEmails(List<UserCreateRequestDto> rows) {
+        List<String> emails = rows.stream()
+                .filter(row -> row != null && !isBlank(row.getEmail()))
+                .map(row -> row.getEmail().toLowerCase(Locale.ROOT))
+                .distinct()
+                .toList();
+
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < emails.size(); from += batchSize) {
+            existing.addAll(userRepository.findExistingEmails(emails.subList(from, Math.min(from + batchSize, emails.size()))));
+        }
+        return existing;
+    }
+
+    private UserImportRowResultDto saveOne(int index, UserEntity entity) {
+        // El lote fallido ya les asignó id y versión; sin ellos save() vuelve a tratarlos como nuevos
+        entity.setId(null);
+        entity.setVersion(null);
+        try {
+            userRepository.save(entity);
+            return created(index, entity);
+        } catch (DataAccessException e) {
+            log.error("Error al insertar el usuario {} ya creado en Cognito: {}", entity.getEmail(), e.getMessage());
+            deleteFromCognito(entity.getEmail());
+            return failed(index, entity.getEmail(), "Error al guardar el usuario en base de datos");
+        }
+    }
+
+    private String provision(UserCreateRequestDto row) {
+        cognitoPermits.acquireUninterruptibly();
+        try {
+            String externalId = withBackPressure(
+                    () -> cognitoService.registerUser(row.getName(), row.getEmail(), row.getPhone()));
+            try {
+                withBackPressure(() -> {
+                    cognitoService.addUserToGroup(row.getEmail(), UserServiceImpl.GROUP_NAME);
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                // Sin grupo el usuario no tendría rol: se deshace el alta para que la fila se pueda reimportar
+                deleteFromCognito(row.getEmail());
+                throw e;
+            }
+            return externalId;
+        } finally {
+            cognitoPermits.release();
+        }
+    }
+
+    // Compensación: una cuenta de Cognito sin fila en base de datos haría fallar la reimportación
+    private void deleteFromCognito(String email) {
+        try {
+            withBackPressure(() -> {
+                cognitoService.deleteUser(email); // usamos email como username en Cognito
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("No se pudo borrar de Cognito el usuario {} sin fila en base de datos: {}", email, e.getMessage());
+        }
+    }
+
+    // El bulkhead admin de Cognito rechaza al momento (503) cuando está lleno o con el circuito abierto.
+    // Para la importación eso es back-pressure, no un fallo de la fila: se espera el Retry-After
+    // y se reintenta, hasta cognitoMaxWait por llamada. El permiso del semáforo se mantiene mientras
+    // tanto, así la importación no mete más llamadas de las que Cognito está aceptando
+    private <T> T withBackPressure(Supplier<T> call) {
+        long deadline = System.nanoTime() + cognitoMaxWait.toNanos();
+        while (true) {
+            try {
+                return call.get();
+            } catch (ServiceUnavailableException e) {
+                Duration wait = e.getRetryAfter() == null || e.getRetryAfter().isZero() ? MIN_BACKOFF : e.getRetryAfter();
+                if (System.nanoTime() + wait.toNanos() > deadline) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(wait);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static UserImportRowResultDto created(int index, UserEntity entity) {
+        return UserImportRowResultDto.builder()
+                .row(index + 1)
+                .email(entity.getEmail())
+                .status(UserImportRowResultDto.Status.CREATED)
+                .externalId(entity.getExternalId())
+                .build();
+    }
+
+    private static String cognitoError(Throwable e) {
+        if (e instanceof ServiceUnavailableException) {
+            // Cognito sigue saturado tras esperar: es carga, no un error del código
+            log.warn("Cognito sigue rechazando llamadas tras esperar: {}", e.getMessage());
+            return "Cognito no está disponible temporalmente; vuelva a importar esta fila";
+        }
+        if (e instanceof UsernameExistsException) {
+            return "El usuario ya existe en Cognito";
+        }
+        if (e instanceof InvalidParameterException) {
+            return "Parámetro inválido al registrar el usuario en Cognito";
+        }
+        if (e instanceof CognitoIdentityProviderException cognitoException) {
+            log.error("Error al crear usuario en Cognito: {}", cognitoException.awsErrorDetails().errorMessage());
+            return "Error al registrar el usuario en Cognito";
+        }
+        log.error("Error inesperado al crear usuario en Cognito", e);
+        return "Error al registrar el usuario en Cognito";
+    }
+
+    private static UserImportRowResultDto failed(int index, String email, String error) {
+        return UserImportRowResultDto.builder()
+                .row(index + 1)
+                .email(email)
+                .status(UserImportRowResultDto.Status.FAILED)
+                .error(error)
+                .build();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,61 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import com.salaverryandres.usermanagement.application.dto.UserDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight para las lecturas por externalId: si llegan varias peticiones a la vez para el
+ * mismo usuario (y no está en caché), solo la primera consulta la base de datos y el resto espera
+ * su resultado, sea el usuario o la excepción. Las peticiones que se suman se cuentan en
+ * users.lookup.coalesced.
+ */
+@Component
+public class UserLookupCoalescer {
+
+    private final ConcurrentHashMap<String, CompletableFuture<UserDto>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public UserLookupCoalescer(MeterRegistry meterRegistry) {
+        this.coalesced = Counter.builder("users.lookup.coalesced")
+                .description("Lecturas de usuario que esperaron a una consulta ya en curso")
+                .register(meterRegistry);
+    }
+
+    public UserDto load(String externalId, Supplier<UserDto> loader) {
+        CompletableFuture<UserDto> call = new CompletableFuture<>();
+        CompletableFuture<UserDto> existing = inFlight.putIfAbsent(externalId, call);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        try {
+            UserDto user = loader.get();
+            call.complete(user);
+            return user;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(externalId, call);
+        }
+    }
+
+    private static UserDto await(CompletableFuture<UserDto> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause; // misma excepción que recibió la primera petición (p. ej. NotFoundException)
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import com.salaverryandres.usermanagement.domain.entity.UserOutboxEventEntity;
+import com.salaverryandres.usermanagement.domain.repository.UserOutboxEventRepository;
+import com.salaverryandres.usermanagement.domain.service.CognitoService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aplica en Cognito los cambios guardados en el outbox ({@code users.outbox.enabled=true}).
+ * Cada lote se reserva en una transacción corta (se aplaza {@code nextAttemptAt} el tiempo de la reserva),
+ * las llamadas a Cognito se hacen fuera de transacción y el resultado de cada evento se guarda en otra
+ * transacción corta. Reintenta con backoff exponencial y conserva el orden de los eventos de un mismo usuario.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "users.outbox.enabled", havingValue = "true")
+public class UserOutboxDispatcher {
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(10);
+
+    private final UserOutboxEventRepository outboxRepository;
+    private final CognitoService cognitoService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration lease;
+
+    public UserOutboxDispatcher(UserOutboxEventRepository outboxRepository,
+                                CognitoService cognitoService,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${users.outbox.batch-size:50}") int batchSize,
+                                @Value("${users.outbox.max-attempts:10}") int maxAttempts,
+                                @Value("${users.outbox.initial-backoff:1s}") Duration initialBackoff,
+                                @Value("${users.outbox.lease:5m}") Duration lease) {
+        this.outboxRepository = outboxRepository;
+        this.cognitoService = cognitoService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.lease = lease;
+    }
+
+    @Scheduled(fixedDelayString = "${users.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        // Seguimos mientras los lotes vengan llenos para vaciar la cola tras un pico
+        List<UserOutboxEventEntity> events;
+        do {
+            events = claim();
+            events.forEach(this::process);
+        } while (events.size() == batchSize);
+    }
+
+    // Los bloqueos de SKIP LOCKED y la conexión solo duran lo que tarda en guardarse la reserva;
+    // si la instancia cae a mitad de lote, los eventos vuelven a estar disponibles al vencer la reserva
+    private List<UserOutboxEventEntity> claim() {
+        Instant now = Instant.now();
+        List<UserOutboxEventEntity> events = transactionTemplate.execute(status -> {
+            List<UserOutboxEventEntity> due = outboxRepository.findDispatchable(
+                    UserOutboxEventEntity.Status.PENDING, now, Limit.of(batchSize));
+            Instant leasedUntil = now.plus(lease);
+            due.forEach(event -> event.setNextAttemptAt(leasedUntil));
+            return due;
+        });
+        return events == null ? List.of() : events;
+    }
+
+    private void process(UserOutboxEventEntity event) {
+        try {
+            apply(event);
+        } catch (RuntimeException e) {
+            handleFailure(event, e, Instant.now());
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.save(event));
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteById(event.getId()));
+    }
+
+    private void apply(UserOutboxEventEntity event) {
+        switch (event.getEventType()) {
+            case UPDATE_ATTRIBUTES -> {
+                Map<String, String> attributes = attributes(event);
+                if (!attributes.isEmpty()) {
+                    cognitoService.updateUserAttributes(event.getUsername(), attributes);
+                }
+                // phone vacío: un PATCH que elimina el teléfono
+                if (event.getPhone() != null && event.getPhone().isEmpty()) {
+                    cognitoService.deleteUserAttributes(event.getUsername(), List.of(CognitoService.ATTRIBUTE_PHONE));
+                }
+            }
+            case DELETE_USER -> {
+                // El evento se agrupa por externalId como los de actualización; en Cognito se borra por email
+                // (eventos anteriores al cambio: solo username, que ya era el email)
+                String cognitoUsername = event.getEmail() != null ? event.getEmail() : event.getUsername();
+                try {
+                    cognitoService.deleteUser(cognitoUsername);
+                } catch (UserNotFoundException e) {
+                    log.warn("El usuario {} ya no existe en Cognito; se da el borrado por aplicado", cognitoUsername);
+                }
+            }
+        }
+    }
+
+    // Solo los atributos con valor: un PATCH guarda únicamente los que cambian
+    private static Map<String, String> attributes(UserOutboxEventEntity event) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        if (event.getName() != null) {
+            attributes.put(CognitoService.ATTRIBUTE_NAME, event.getName());
+        }
+        if (event.getEmail() != null) {
+            attributes.put(CognitoService.ATTRIBUTE_EMAIL, event.getEmail());
+        }
+        if (event.getPhone() != null && !event.getPhone().isBlank()) {
+            attributes.put(CognitoService.ATTRIBUTE_PHONE, event.getPhone());
+        }
+        return attributes;
+    }
+
+    // Un evento que sigue PENDING con nextAttemptAt en el futuro bloquea los posteriores del mismo usuario
+    // (findDispatchable); uno FAILED deja de bloquearlos
+    private void handleFailure(UserOutboxEventEntity event, RuntimeException e, Instant now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(e.toString()));
+
+        if (!isRetryable(e) || attempts >= maxAttempts) {
+            event.setStatus(UserOutboxEventEntity.Status.FAILED);
+            log.error("Evento de outbox {} ({} sobre {}) descartado tras {} intentos: {}",
+                    event.getId(), event.getEventType(), event.getUsername(), attempts, e.getMessage());
+            return;
+        }
+
+        Instant nextAttemptAt = now.plus(backoff(attempts));
+        event.setNextAttemptAt(nextAttemptAt);
+        log.warn("Error aplicando el evento de outbox {} (intento {}), se reintentará a las {}: {}",
+                event.getId(), attempts, nextAttemptAt, e.getMessage());
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff;
+    }
+
+    // Los errores de validación de Cognito (4xx) no se arreglan reintentando
+    private static boolean isRetryable(RuntimeException e) {
+        if (e instanceof AwsServiceException awsException) {
+            return awsException.isThrottlingException() || awsException.statusCode() >= 500;
+        }
+        return true;
+    }
+
+    private static String truncate(String value) {
+        return value.length() > 500 ? value.substring(0, 500) : value;
+    }
+}
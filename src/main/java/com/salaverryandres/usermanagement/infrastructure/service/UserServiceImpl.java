@@ -2,26 +2,54 @@ package com.salaverryandres.usermanagement.infrastructure.service;
 
 import com.salaverryandres.usermanagement.application.dto.UserCreateRequestDto;
 import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.dto.UserFieldsPageResponse;
 import com.salaverryandres.usermanagement.application.dto.UserPageResponse;
+import com.salaverryandres.usermanagement.application.dto.UserPatchRequestDto;
+import com.salaverryandres.usermanagement.application.dto.UserVersionDto;
 import com.salaverryandres.usermanagement.application.exception.BadRequestException;
 import com.salaverryandres.usermanagement.application.exception.NotFoundException;
+import com.salaverryandres.usermanagement.application.exception.PreconditionFailedException;
 import com.salaverryandres.usermanagement.application.mapper.UserMapper;
+import com.salaverryandres.usermanagement.application.pagination.TotalCountMode;
+import com.salaverryandres.usermanagement.application.pagination.UserCursor;
+import com.salaverryandres.usermanagement.application.projection.UserField;
 import com.salaverryandres.usermanagement.domain.entity.UserEntity;
+import com.salaverryandres.usermanagement.domain.entity.UserOutboxEventEntity;
+import com.salaverryandres.usermanagement.domain.repository.UserOutboxEventRepository;
 import com.salaverryandres.usermanagement.domain.repository.UserRepository;
 import com.salaverryandres.usermanagement.domain.service.CognitoService;
 import com.salaverryandres.usermanagement.domain.service.UserService;
-import jakarta.transaction.Transactional;
+import com.salaverryandres.usermanagement.infrastructure.config.CacheConfig;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AliasExistsException;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.CognitoIdentityProviderException;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.InvalidParameterException;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.UsernameExistsException;
 
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -30,11 +58,23 @@ public class UserServiceImpl implements UserService {
 
     public static final String GROUP_NAME = "USER";
     public static final String USUARIO_NO_ENCONTRADO = "Usuario no encontrado";
+    private static final int MIN_SEARCH_LENGTH = 2;
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final CognitoService cognitoService;
+    private final EntityManager entityManager;
+    private final UserOutboxEventRepository outboxRepository;
+    private final UserLookupCoalescer userLookupCoalescer;
+    private final UserCountCache userCountCache;
+
+    // true: update/delete guardan el cambio de Cognito en el outbox y responden sin esperar a AWS
+    @Value("${users.outbox.enabled:false}")
+    private boolean outboxEnabled;
 
+    // Sin transacción mientras se llama a Cognito: el alta necesita el sub antes de insertar,
+    // y save() abre su propia transacción corta
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserDto createUser(UserCreateRequestDto request) {
         try {
             // 1. Crear en Cognito y obtener el externalId (sub)
@@ -54,6 +94,7 @@ public class UserServiceImpl implements UserService {
 
             // 4. Guardar en la base de datos
             UserEntity saved = userRepository.save(entity);
+            userCountCache.adjust(1);
 
             // 5. Retornar el resultado
             return userMapper.toDto(saved);
@@ -70,33 +111,249 @@ public class UserServiceImpl implements UserService {
     }
 
 
+    // Lecturas de listados en transacción de solo lectura y con proyección a UserDto:
+    // Hibernate no guarda snapshots ni hace flush al terminar
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageResponse getAllUsers(Pageable pageable, TotalCountMode countMode) {
+        if (countMode == TotalCountMode.EXACT) {
+            Page<UserDto> page = userRepository.findAllAsDto(pageable);
+            return UserPageResponse.builder()
+                    .users(page.getContent())
+                    .totalElements(page.getTotalElements())
+                    .totalPages(page.getTotalPages())
+                    .currentPage(page.getNumber())
+                    .pageSize(page.getSize())
+                    .build();
+        }
+
+        // Sin count(*): se pide un elemento de más para saber si hay página siguiente
+        Slice<UserDto> slice = userRepository.findSliceAsDto(pageable);
+        UserPageResponse.UserPageResponseBuilder response = UserPageResponse.builder()
+                .users(slice.getContent())
+                .currentPage(slice.getNumber())
+                .pageSize(slice.getSize())
+                .hasNext(slice.hasNext());
+        if (countMode == TotalCountMode.APPROXIMATE) {
+            // El total en caché nunca puede ser menor que lo que ya se ha visto
+            long total = Math.max(userCountCache.get(), pageable.getOffset() + slice.getNumberOfElements());
+            response.totalElements(total)
+                    .totalPages(totalPages(total, slice.getSize()));
+        }
+        return response.build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserFieldsPageResponse getAllUsers(Pageable pageable, TotalCountMode countMode, Set<UserField> fields) {
+        Slice<Map<String, Object>> slice = userRepository.findFields(fields, pageable);
+        UserFieldsPageResponse.UserFieldsPageResponseBuilder response = UserFieldsPageResponse.builder()
+                .users(slice.getContent())
+                .currentPage(slice.getNumber())
+                .pageSize(slice.getSize());
+        long seen = pageable.getOffset() + slice.getNumberOfElements();
+        if (countMode == TotalCountMode.EXACT) {
+            // Con la página incompleta el total ya se conoce sin count(*)
+            long total = slice.hasNext() || slice.getNumberOfElements() == 0 ? userRepository.count() : seen;
+            return response.totalElements(total).totalPages(totalPages(total, slice.getSize())).build();
+        }
+        response.hasNext(slice.hasNext());
+        if (countMode == TotalCountMode.APPROXIMATE) {
+            long total = Math.max(userCountCache.get(), seen);
+            response.totalElements(total).totalPages(totalPages(total, slice.getSize()));
+        }
+        return response.build();
+    }
+
+    private static int totalPages(long total, int size) {
+        return size == 0 ? 1 : (int) Math.ceil((double) total / size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageResponse getUsersAfter(String cursor, int size) {
+        long lastId = UserCursor.decode(cursor);
+
+        // Pedimos un elemento de más para saber si existe una página siguiente
+        List<UserDto> rows = userRepository.findAsDtoAfter(lastId, Limit.of(size + 1));
+        boolean hasNext = rows.size() > size;
+        List<UserDto> content = hasNext ? rows.subList(0, size) : rows;
+
+        return UserPageResponse.builder()
+                .users(content)
+                .pageSize(size)
+                .nextCursor(hasNext ? UserCursor.encode(content.get(content.size() - 1).getId()) : null)
+                .build();
+    }
+
+
     @Override
-    public UserPageResponse getAllUsers(Pageable pageable) {
-        Page<UserEntity> page = userRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public UserPageResponse searchUsers(String query, Pageable pageable) {
+        String prefix = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (prefix.length() < MIN_SEARCH_LENGTH) {
+            throw new BadRequestException("La búsqueda necesita al menos " + MIN_SEARCH_LENGTH + " caracteres");
+        }
+
+        Slice<UserDto> slice = userRepository.searchByPrefix(escapeLike(prefix) + "%",
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
         return UserPageResponse.builder()
-                .users(userMapper.toDtoList(page.getContent()))
-                .totalElements(page.getTotalElements())
-                .totalPages(page.getTotalPages())
-                .currentPage(page.getNumber())
-                .pageSize(page.getSize())
+                .users(slice.getContent())
+                .currentPage(slice.getNumber())
+                .pageSize(slice.getSize())
+                .hasNext(slice.hasNext())
                 .build();
     }
 
+    // El texto del usuario no puede traer comodines de LIKE
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
 
+    // Sin transacción propia: las peticiones que esperan a otra consulta en curso no ocupan conexión,
+    // y findByExternalId ya abre su transacción (en el primario, ver UserRepository)
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_EXTERNAL_ID, key = "#externalId")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UserDto getUserByExternalId(String externalId) {
-        return userRepository.findByExternalId(externalId)
+        return userLookupCoalescer.load(externalId, () -> userRepository.findByExternalId(externalId)
                 .map(userMapper::toDto)
+                .orElseThrow(() -> new NotFoundException(USUARIO_NO_ENCONTRADO)));
+    }
+
+    // Sin readOnly: una transacción de solo lectura iría a una réplica (ReadReplicaConfig)
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public UserVersionDto getUserVersion(String externalId) {
+        return userRepository.findVersionByExternalId(externalId)
                 .orElseThrow(() -> new NotFoundException(USUARIO_NO_ENCONTRADO));
     }
 
     @Override
-    public UserDto updateUser(String externalId, UserCreateRequestDto request) {
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserDto> consumer) {
+        try (Stream<UserEntity> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                consumer.accept(userMapper.toDto(user));
+                // Sacamos la entidad del contexto de persistencia para que la memoria no crezca con la tabla
+                entityManager.detach(user);
+            });
+        }
+    }
+
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.USERS_BY_EXTERNAL_ID, CacheConfig.USER_JSON_BY_EXTERNAL_ID}, key = "#externalId")
+    public UserDto updateUser(String externalId, UserCreateRequestDto request, Long expectedVersion) {
         UserEntity user = userRepository.findByExternalId(externalId)
                 .orElseThrow(() -> new NotFoundException(USUARIO_NO_ENCONTRADO));
 
+        checkVersion(user, expectedVersion);
+
+        user.setName(request.getName());
+        user.setEmail(request.getEmail());
+        user.setPhone(request.getPhone());
+
+        // El UPDATE va antes que Cognito: el flush comprueba @Version y el email único y deja la fila
+        // bloqueada hasta el commit; si Cognito falla después, la excepción deshace el UPDATE.
+        // También deja en el DTO la versión y updatedAt nuevos (ETag de la respuesta)
+        UserEntity saved = userRepository.saveAndFlush(user);
+
+        if (outboxEnabled) {
+            enqueue(UserOutboxEventEntity.builder()
+                    .eventType(UserOutboxEventEntity.EventType.UPDATE_ATTRIBUTES)
+                    .username(externalId)
+                    .name(request.getName())
+                    .email(request.getEmail())
+                    // PUT no borra el teléfono en Cognito: en el outbox phone vacío significa borrarlo
+                    .phone(request.getPhone() == null || request.getPhone().isBlank() ? null : request.getPhone()));
+        } else {
+            updateCognitoAttributes(() -> cognitoService.updateUserAttributes(
+                    externalId, request.getName(), request.getEmail(), request.getPhone()));
+        }
+        return userMapper.toDto(saved);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.USERS_BY_EXTERNAL_ID, CacheConfig.USER_JSON_BY_EXTERNAL_ID}, key = "#externalId")
+    public UserDto patchUser(String externalId, UserPatchRequestDto patch, Long expectedVersion) {
+        UserEntity user = userRepository.findByExternalId(externalId)
+                .orElseThrow(() -> new NotFoundException(USUARIO_NO_ENCONTRADO));
+        checkVersion(user, expectedVersion);
+
+        // Solo lo que cambia respecto a lo guardado; lastName no existe en Cognito
+        Map<String, String> cognitoChanges = new LinkedHashMap<>();
+        boolean removePhone = false;
+        boolean changed = false;
+        if (patch.getName() != null && !patch.getName().equals(user.getName())) {
+            user.setName(patch.getName());
+            cognitoChanges.put(CognitoService.ATTRIBUTE_NAME, patch.getName());
+            changed = true;
+        }
+        if (patch.getEmail() != null && !patch.getEmail().equals(user.getEmail())) {
+            user.setEmail(patch.getEmail());
+            cognitoChanges.put(CognitoService.ATTRIBUTE_EMAIL, patch.getEmail());
+            changed = true;
+        }
+        if (patch.getPhone() != null) {
+            String phone = patch.getPhone().isBlank() ? null : patch.getPhone();
+            if (!Objects.equals(phone, user.getPhone())) {
+                user.setPhone(phone);
+                changed = true;
+                // Un teléfono vacío se borra también en Cognito (AdminDeleteUserAttributes)
+                if (phone != null) {
+                    cognitoChanges.put(CognitoService.ATTRIBUTE_PHONE, phone);
+                } else {
+                    removePhone = true;
+                }
+            }
+        }
+        if (patch.getLastName() != null && !patch.getLastName().equals(user.getLastName())) {
+            user.setLastName(patch.getLastName());
+            changed = true;
+        }
+
+        if (!changed) {
+            return userMapper.toDto(user); // nada que hacer: ni Cognito ni UPDATE, la versión no cambia
+        }
+
+        // Como en updateUser, primero el UPDATE (con @DynamicUpdate solo las columnas modificadas):
+        // un conflicto de versión o de email único se detecta antes de tocar Cognito
+        UserEntity saved = userRepository.saveAndFlush(user);
+
+        if (!cognitoChanges.isEmpty() || removePhone) {
+            if (outboxEnabled) {
+                // En el outbox, phone vacío significa borrar el atributo
+                enqueue(UserOutboxEventEntity.builder()
+                        .eventType(UserOutboxEventEntity.EventType.UPDATE_ATTRIBUTES)
+                        .username(externalId)
+                        .name(cognitoChanges.get(CognitoService.ATTRIBUTE_NAME))
+                        .email(cognitoChanges.get(CognitoService.ATTRIBUTE_EMAIL))
+                        .phone(removePhone ? "" : cognitoChanges.get(CognitoService.ATTRIBUTE_PHONE)));
+            } else {
+                boolean deletePhone = removePhone;
+                updateCognitoAttributes(() -> {
+                    if (!cognitoChanges.isEmpty()) {
+                        cognitoService.updateUserAttributes(externalId, cognitoChanges);
+                    }
+                    if (deletePhone) {
+                        cognitoService.deleteUserAttributes(externalId, List.of(CognitoService.ATTRIBUTE_PHONE));
+                    }
+                });
+            }
+        }
+        return userMapper.toDto(saved);
+    }
+
+    // If-Match: se comprueba contra lo leído; entre esta lectura y el UPDATE protege @Version en el flush
+    private static void checkVersion(UserEntity user, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new PreconditionFailedException("El usuario ha cambiado desde la versión indicada en If-Match");
+        }
+    }
+
+    private void updateCognitoAttributes(Runnable update) {
         try {
-            cognitoService.updateUserAttributes(externalId, request.getName(), request.getEmail(), request.getPhone());
+            update.run();
         } catch (UserNotFoundException e) {
             throw new NotFoundException("Usuario no encontrado en Cognito");
         } catch (AliasExistsException e) {
@@ -109,30 +366,44 @@ public class UserServiceImpl implements UserService {
             log.error("Error al actualizar Cognito: {}", e.awsErrorDetails().errorMessage());
             throw new BadRequestException("No se pudo actualizar el usuario en Cognito", e);
         }
-
-        user.setName(request.getName());
-        user.setEmail(request.getEmail());
-        user.setPhone(request.getPhone());
-
-        return userMapper.toDto(userRepository.save(user));
     }
 
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.USERS_BY_EXTERNAL_ID, CacheConfig.USER_JSON_BY_EXTERNAL_ID}, key = "#externalId")
     public void deleteUser(String externalId) {
         UserEntity user = userRepository.findByExternalId(externalId)
                 .orElseThrow(() -> new NotFoundException(USUARIO_NO_ENCONTRADO));
 
-        try {
-            cognitoService.deleteUser(user.getEmail()); // usamos email como username en Cognito
-        } catch (UserNotFoundException e) {
-            throw new NotFoundException("Usuario no encontrado en Cognito");
-        } catch (CognitoIdentityProviderException e) {
-            log.error("Error al eliminar usuario en Cognito: {}", e.awsErrorDetails().errorMessage());
-            throw new BadRequestException("No se pudo eliminar el usuario en Cognito", e);
+        if (outboxEnabled) {
+            enqueue(UserOutboxEventEntity.builder()
+                    .eventType(UserOutboxEventEntity.EventType.DELETE_USER)
+                    .username(externalId) // misma clave que las actualizaciones: el orden por usuario se mantiene
+                    .email(user.getEmail())); // usamos email como username en Cognito
+        } else {
+            try {
+                cognitoService.deleteUser(user.getEmail()); // usamos email como username en Cognito
+            } catch (UserNotFoundException e) {
+                throw new NotFoundException("Usuario no encontrado en Cognito");
+            } catch (CognitoIdentityProviderException e) {
+                log.error("Error al eliminar usuario en Cognito: {}", e.awsErrorDetails().errorMessage());
+                throw new BadRequestException("No se pudo eliminar el usuario en Cognito", e);
+            }
         }
 
         userRepository.delete(user);
+        userCountCache.adjust(-1);
+    }
+
+    // Se guarda en la misma transacción que el cambio en users; lo aplica UserOutboxDispatcher
+    private void enqueue(UserOutboxEventEntity.UserOutboxEventEntityBuilder event) {
+        Instant now = Instant.now();
+        outboxRepository.save(event
+                .status(UserOutboxEventEntity.Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
     }
 
 }
@@ -0,0 +1,138 @@
+package com.salaverryandres.usermanagement.application.service;
+
+import com.salaverryandres.usermanagement.application.dto.UserCreateRequestDto;
+import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.mapper.UserMapper;
+import com.salaverryandres.usermanagement.domain.entity.UserEntity;
+import com.salaverryandres.usermanagement.domain.repository.UserOutboxEventRepository;
+import com.salaverryandres.usermanagement.domain.repository.UserRepository;
+import com.salaverryandres.usermanagement.domain.service.CognitoService;
+import com.salaverryandres.usermanagement.domain.service.UserService;
+import com.salaverryandres.usermanagement.infrastructure.config.CacheConfig;
+import com.salaverryandres.usermanagement.infrastructure.service.UserCountCache;
+import com.salaverryandres.usermanagement.infrastructure.service.UserLookupCoalescer;
+import com.salaverryandres.usermanagement.infrastructure.service.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Caché de GET /api/users/{externalId} con los proxies reales de Spring: la segunda lectura no llega
+ * al repositorio y las escrituras invalidan tanto el UserDto como su JSON.
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {CacheConfig.class, UserServiceCacheTest.TestConfig.class})
+class UserServiceCacheTest {
+
+    private static final String EXTERNAL_ID = "sub-123";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private CognitoService cognitoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private UserEntity entity;
+
+    @BeforeEach
+    void setUp() {
+        reset(userRepository, userMapper, cognitoService);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        entity = UserEntity.builder().id(1L).externalId(EXTERNAL_ID).email("johan@example.com").version(0L).build();
+        when(userRepository.findByExternalId(EXTERNAL_ID)).thenReturn(Optional.of(entity));
+        when(userRepository.saveAndFlush(entity)).thenReturn(entity);
+        when(userMapper.toDto(any(UserEntity.class)))
+                .thenAnswer(invocation -> UserDto.builder().externalId(EXTERNAL_ID).build());
+    }
+
+    @Test
+    void getUserByExternalId_shouldReadRepositoryOnlyOnce() {
+        UserDto first = userService.getUserByExternalId(EXTERNAL_ID);
+        UserDto second = userService.getUserByExternalId(EXTERNAL_ID);
+
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findByExternalId(EXTERNAL_ID);
+    }
+
+    @Test
+    void updateUser_shouldEvictCachedUserAndJson() {
+        userService.getUserByExternalId(EXTERNAL_ID);
+        cacheManager.getCache(CacheConfig.USER_JSON_BY_EXTERNAL_ID).put(EXTERNAL_ID, new byte[0]);
+
+        userService.updateUser(EXTERNAL_ID, UserCreateRequestDto.builder()
+                .name("Johan").email("johan@example.com").build());
+
+        assertThat(cacheManager.getCache(CacheConfig.USERS_BY_EXTERNAL_ID).get(EXTERNAL_ID)).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.USER_JSON_BY_EXTERNAL_ID).get(EXTERNAL_ID)).isNull();
+
+        userService.getUserByExternalId(EXTERNAL_ID);
+        // lectura inicial + la de updateUser + la lectura tras invalidar
+        verify(userRepository, times(3)).findByExternalId(EXTERNAL_ID);
+    }
+
+    @Test
+    void deleteUser_shouldEvictCachedUserAndJson() {
+        userService.getUserByExternalId(EXTERNAL_ID);
+        cacheManager.getCache(CacheConfig.USER_JSON_BY_EXTERNAL_ID).put(EXTERNAL_ID, new byte[0]);
+
+        userService.deleteUser(EXTERNAL_ID);
+
+        assertThat(cacheManager.getCache(CacheConfig.USERS_BY_EXTERNAL_ID).get(EXTERNAL_ID)).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.USER_JSON_BY_EXTERNAL_ID).get(EXTERNAL_ID)).isNull();
+        verify(userRepository).delete(entity);
+    }
+
+    @Configuration
+    static class TestConfig {
+
+        @Bean
+        public UserRepository userRepository() {
+            return mock(UserRepository.class);
+        }
+
+        @Bean
+        public UserMapper userMapper() {
+            return mock(UserMapper.class);
+        }
+
+        @Bean
+        public CognitoService cognitoService() {
+            return mock(CognitoService.class);
+        }
+
+        @Bean
+        public UserService userService(UserRepository userRepository, UserMapper userMapper, CognitoService cognitoService) {
+            return new UserServiceImpl(userRepository, userMapper, cognitoService, mock(EntityManager.class),
+                    mock(UserOutboxEventRepository.class), new UserLookupCoalescer(new SimpleMeterRegistry()),
+                    mock(UserCountCache.class));
+        }
+    }
+}
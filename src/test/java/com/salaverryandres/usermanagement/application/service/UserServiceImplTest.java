@@ -2,26 +2,57 @@ package com.salaverryandres.usermanagement.application.service;
 
 import com.salaverryandres.usermanagement.application.dto.UserCreateRequestDto;
 import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.dto.UserFieldsPageResponse;
+import com.salaverryandres.usermanagement.application.dto.UserPageResponse;
+import com.salaverryandres.usermanagement.application.dto.UserPatchRequestDto;
 import com.salaverryandres.usermanagement.application.exception.BadRequestException;
+import com.salaverryandres.usermanagement.application.exception.PreconditionFailedException;
 import com.salaverryandres.usermanagement.application.mapper.UserMapper;
+import com.salaverryandres.usermanagement.application.pagination.TotalCountMode;
+import com.salaverryandres.usermanagement.application.pagination.UserCursor;
+import com.salaverryandres.usermanagement.application.projection.UserField;
 import com.salaverryandres.usermanagement.domain.entity.UserEntity;
+import com.salaverryandres.usermanagement.domain.entity.UserOutboxEventEntity;
+import com.salaverryandres.usermanagement.domain.repository.UserOutboxEventRepository;
 import com.salaverryandres.usermanagement.domain.repository.UserRepository;
 import com.salaverryandres.usermanagement.domain.service.CognitoService;
+import com.salaverryandres.usermanagement.infrastructure.service.UserCountCache;
+import com.salaverryandres.usermanagement.infrastructure.service.UserLookupCoalescer;
 import com.salaverryandres.usermanagement.infrastructure.service.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.CognitoIdentityProviderException;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.InvalidParameterException;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.UsernameExistsException;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +70,15 @@ class UserServiceImplTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UserOutboxEventRepository outboxRepository;
+
+    @Mock
+    private UserCountCache userCountCache;
+
+    @Spy
+    private UserLookupCoalescer userLookupCoalescer = new UserLookupCoalescer(new SimpleMeterRegistry());
+
     private UserCreateRequestDto request;
 
     @BeforeEach
@@ -80,6 +120,7 @@ class UserServiceImplTest {
         verify(cognitoService).registerUser("Johan", "johan@example.com", "+34123456789");
         verify(userRepository).save(entity);
         verify(userMapper).toDto(savedEntity);
+        verify(userCountCache).adjust(1);
     }
 
     @Test
@@ -138,5 +179,297 @@ class UserServiceImplTest {
 
         verify(cognitoService).registerUser(anyString(), anyString(), anyString());
     }
-}
 
+    @Test
+    void getUsersAfter_shouldReturnNextCursor_whenMoreRowsExist() {
+        UserDto first = UserDto.builder().id(11L).build();
+        UserDto second = UserDto.builder().id(12L).build();
+        UserDto extra = UserDto.builder().id(13L).build();
+
+        when(userRepository.findAsDtoAfter(10L, Limit.of(3))).thenReturn(List.of(first, second, extra));
+
+        UserPageResponse result = userService.getUsersAfter(UserCursor.encode(10L), 2);
+
+        assertThat(result.getUsers()).containsExactly(first, second);
+        assertThat(result.getNextCursor()).isEqualTo(UserCursor.encode(12L));
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    void getUsersAfter_shouldReturnNullCursor_onLastPage() {
+        when(userRepository.findAsDtoAfter(0L, Limit.of(3))).thenReturn(List.of(UserDto.builder().id(1L).build()));
+
+        UserPageResponse result = userService.getUsersAfter("", 2);
+
+        assertThat(result.getUsers()).hasSize(1);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getUsersAfter_shouldThrowBadRequest_whenCursorIsMalformed() {
+        assertThatThrownBy(() -> userService.getUsersAfter("no-es-un-cursor", 2))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor inválido");
+    }
+
+    @Test
+    void deleteUser_shouldEnqueueOutboxEvent_whenOutboxEnabled() {
+        ReflectionTestUtils.setField(userService, "outboxEnabled", true);
+        UserEntity user = new UserEntity();
+        user.setExternalId("sub-123");
+        user.setEmail("johan@example.com");
+        when(userRepository.findByExternalId("sub-123")).thenReturn(Optional.of(user));
+
+        userService.deleteUser("sub-123");
+
+        ArgumentCaptor<UserOutboxEventEntity> event = ArgumentCaptor.forClass(UserOutboxEventEntity.class);
+        verify(outboxRepository).save(event.capture());
+        assertThat(event.getValue().getEventType()).isEqualTo(UserOutboxEventEntity.EventType.DELETE_USER);
+        assertThat(event.getValue().getUsername()).isEqualTo("sub-123");
+        assertThat(event.getValue().getEmail()).isEqualTo("johan@example.com");
+        assertThat(event.getValue().getStatus()).isEqualTo(UserOutboxEventEntity.Status.PENDING);
+        verify(cognitoService, never()).deleteUser(anyString());
+        verify(userRepository).delete(user);
+    }
+
+    @Test
+    void updateUser_shouldRejectStaleVersion_beforeCallingCognito() {
+        UserEntity user = new UserEntity();
+        user.setExternalId("sub-123");
+        user.setVersion(5L);
+        when(userRepository.findByExternalId("sub-123")).thenReturn(Optional.of(user));
+
+        assertThatThrownBy(() -> userService.updateUser("sub-123", request, 4L))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        verify(cognitoService, never()).updateUserAttributes(anyString(), any(), any(), any());
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void updateUser_whenFlushHitsConcurrentWrite_shouldNotCallCognito() {
+        UserEntity user = storedUser();
+        when(userRepository.findByExternalId("sub-123")).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(user))
+                .thenThrow(new ObjectOptimisticLockingFailureException(UserEntity.class, 1L));
+
+        assertThatThrownBy(() -> userService.updateUser("sub-123", request, 1L))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        verify(cognitoService, never()).updateUserAttributes(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void patchUser_whenFlushHitsConcurrentWrite_shouldNotCallCognito() {
+        UserEntity user = storedUser();
+        when(userRepository.findByExternalId("sub-123")).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(user))
+                .thenThrow(new ObjectOptimisticLockingFailureException(UserEntity.class, 1L));
+
+        assertThatThrownBy(() -> userService.patchUser("sub-123", UserPatchRequestDto.builder()
+                .phone("+34999999999")
+                .build(), 1L))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        verify(cognitoService, never()).updateUserAttributes(anyString(), anyMap());
+    }
+
+    @Test
+    void patchUser_whenEmailIsTaken_shouldNotCallCognito() {
+        UserEntity user = storedUser();
+        when(userRepository.findByExternalId("sub-123")).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(user)).thenThrow(new DataIntegrityViolationException("uk_users_email"));
+
+        assertThatThrownBy(() -> userService.patchUser("sub-123", UserPatchRequestDto.builder()
+                .email("otro@example.com")
+                .build(), null))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        verify(cognitoService, never()).updateUserAttributes(anyString(), anyMap());
+    }
+
+    @Test
+    void patchUser_shouldSendOnlyChangedAttributesToCognito() {
+        UserEntity user = storedUser();
+        when(userRepository.findByExternalId("sub-123")).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
+
+        userService.patchUser("sub-123", UserPatchRequestDto.builder()
+                .name("Johan")
+                .phone("+34999999999")
+                .build(), null);
+
+        verify(cognitoService).updateUserAttributes("sub-123", Map.of(CognitoService.ATTRIBUTE_PHONE, "+34999999999"));
+        verify(cognitoService, never()).updateUserAttributes(anyString(), any(), any(), any());
+        assertThat(user.getPhone()).isEqualTo("+34999999999");
+        verify(userRepository).saveAndFlush(user);
+    }
+
+    @Test
+    void patchUser_withBlankPhone_shouldDeletePhoneInCognito() {
+        UserEntity user = storedUser();
+        when(userRepository.findByExternalId("sub-123")).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
+
+        userService.patchUser("sub-123", UserPatchRequestDto.builder().phone("").build(), null);
+
+        verify(cognitoService).deleteUserAttributes("sub-123", List.of(CognitoService.ATTRIBUTE_PHONE));
+        verify(cognitoService, never()).updateUserAttributes(anyString(), anyMap());
+        assertThat(user.getPhone()).isNull();
+        verify(userRepository).saveAndFlush(user);
+    }
+
+    @Test
+    void patchUser_withBlankPhone_shouldEnqueuePhoneRemoval_whenOutboxEnabled() {
+        ReflectionTestUtils.setField(userService, "outboxEnabled", true);
+        UserEntity user = storedUser();
+        when(userRepository.findByExternalId("sub-123")).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
+
+        userService.patchUser("sub-123", UserPatchRequestDto.builder().phone(" ").build(), null);
+
+        ArgumentCaptor<UserOutboxEventEntity> event = ArgumentCaptor.forClass(UserOutboxEventEntity.class);
+        verify(outboxRepository).save(event.capture());
+        assertThat(event.getValue().getUsername()).isEqualTo("sub-123");
+        assertThat(event.getValue().getPhone()).isEmpty();
+        verify(cognitoService, never()).deleteUserAttributes(anyString(), any());
+    }
+
+    @Test
+    void patchUser_shouldSkipCognito_whenOnlyLastNameChanges() {
+        UserEntity user = storedUser();
+        when(userRepository.findByExternalId("sub-123")).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
+
+        userService.patchUser("sub-123", UserPatchRequestDto.builder().lastName("Pérez").build(), null);
+
+        verify(cognitoService, never()).updateUserAttributes(anyString(), anyMap());
+        assertThat(user.getLastName()).isEqualTo("Pérez");
+        verify(userRepository).saveAndFlush(user);
+    }
+
+    @Test
+    void patchUser_shouldNotWrite_whenNothingChanges() {
+        UserEntity user = storedUser();
+        when(userRepository.findByExternalId("sub-123")).thenReturn(Optional.of(user));
+
+        userService.patchUser("sub-123", UserPatchRequestDto.builder()
+                .name("Johan")
+                .email("johan@example.com")
+                .build(), null);
+
+        verify(cognitoService, never()).updateUserAttributes(anyString(), anyMap());
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void getAllUsers_shouldReadDtoProjection() {
+        UserDto dto = UserDto.builder().externalId("sub-123").build();
+        when(userRepository.findAllAsDto(PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(dto), PageRequest.of(0, 20), 1));
+
+        UserPageResponse result = userService.getAllUsers(PageRequest.of(0, 20));
+
+        assertThat(result.getUsers()).containsExactly(dto);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        verify(userMapper, never()).toDtoList(any());
+    }
+
+    @Test
+    void getAllUsers_withoutTotal_shouldNotCount() {
+        UserDto dto = UserDto.builder().externalId("sub-123").build();
+        when(userRepository.findSliceAsDto(PageRequest.of(0, 20)))
+                .thenReturn(new SliceImpl<>(List.of(dto), PageRequest.of(0, 20), true));
+
+        UserPageResponse result = userService.getAllUsers(PageRequest.of(0, 20), TotalCountMode.NONE);
+
+        assertThat(result.getUsers()).containsExactly(dto);
+        assertThat(result.getHasNext()).isTrue();
+        verify(userRepository, never()).findAllAsDto(any());
+        verify(userCountCache, never()).get();
+    }
+
+    @Test
+    void getAllUsers_withApproximateTotal_shouldUseCachedCount() {
+        when(userRepository.findSliceAsDto(PageRequest.of(1, 20)))
+                .thenReturn(new SliceImpl<>(List.of(UserDto.builder().build()), PageRequest.of(1, 20), false));
+        when(userCountCache.get()).thenReturn(95L);
+
+        UserPageResponse result = userService.getAllUsers(PageRequest.of(1, 20), TotalCountMode.APPROXIMATE);
+
+        assertThat(result.getTotalElements()).isEqualTo(95);
+        assertThat(result.getTotalPages()).isEqualTo(5);
+        assertThat(result.getHasNext()).isFalse();
+        verify(userRepository, never()).findAllAsDto(any());
+    }
+
+    @Test
+    void getAllUsersWithFields_shouldSkipCount_whenPageIsIncomplete() {
+        EnumSet<UserField> fields = EnumSet.of(UserField.EXTERNAL_ID, UserField.EMAIL);
+        Map<String, Object> row = Map.of("externalId", "sub-123", "email", "johan@example.com");
+        when(userRepository.findFields(fields, PageRequest.of(1, 20)))
+                .thenReturn(new SliceImpl<>(List.of(row), PageRequest.of(1, 20), false));
+
+        UserFieldsPageResponse result = userService.getAllUsers(PageRequest.of(1, 20), TotalCountMode.EXACT, fields);
+
+        assertThat(result.getUsers()).containsExactly(row);
+        assertThat(result.getTotalElements()).isEqualTo(21);
+        assertThat(result.getTotalPages()).isEqualTo(2);
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    void getAllUsersWithFields_shouldCount_whenMorePagesExist() {
+        EnumSet<UserField> fields = EnumSet.of(UserField.EXTERNAL_ID);
+        when(userRepository.findFields(fields, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(Map.of("externalId", "sub-123")), PageRequest.of(0, 1), true));
+        when(userRepository.count()).thenReturn(3L);
+
+        UserFieldsPageResponse result = userService.getAllUsers(PageRequest.of(0, 1), TotalCountMode.EXACT, fields);
+
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getTotalPages()).isEqualTo(3);
+        assertThat(result.getHasNext()).isNull();
+    }
+
+    @Test
+    void getUserByExternalId_shouldLoadThroughCoalescer() {
+        UserEntity entity = new UserEntity();
+        UserDto dto = UserDto.builder().externalId("sub-123").build();
+        when(userRepository.findByExternalId("sub-123")).thenReturn(Optional.of(entity));
+        when(userMapper.toDto(entity)).thenReturn(dto);
+
+        assertThat(userService.getUserByExternalId("sub-123")).isSameAs(dto);
+
+        verify(userLookupCoalescer).load(eq("sub-123"), any());
+    }
+
+    @Test
+    void searchUsers_shouldEscapeLikeWildcardsAndUseLowercasePrefix() {
+        when(userRepository.searchByPrefix(eq("jo!%hn!_%"), any()))
+                .thenReturn(new SliceImpl<>(List.of(UserDto.builder().build()), PageRequest.of(0, 1), true));
+
+        UserPageResponse result = userService.searchUsers(" Jo%hn_ ", PageRequest.of(0, 1));
+
+        assertThat(result.getHasNext()).isTrue();
+        assertThat(result.getUsers()).hasSize(1);
+    }
+
+    @Test
+    void searchUsers_shouldRejectQueriesShorterThanTwoCharacters() {
+        assertThatThrownBy(() -> userService.searchUsers("a", PageRequest.of(0, 20)))
+                .isInstanceOf(BadRequestException.class);
+        verify(userRepository, never()).searchByPrefix(anyString(), any());
+    }
+
+    private static UserEntity storedUser() {
+        UserEntity user = new UserEntity();
+        user.setExternalId("sub-123");
+        user.setName("Johan");
+        user.setLastName("García");
+        user.setEmail("johan@example.com");
+        user.setPhone("+34123456789");
+        user.setVersion(1L);
+        return user;
+    }
+}
@@ -0,0 +1,35 @@
+package com.salaverryandres.usermanagement.benchmark;
+
+import com.salaverryandres.usermanagement.domain.entity.UserEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de prueba compartidos por los benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static UserEntity user(long id) {
+        return UserEntity.builder()
+                .id(id)
+                .externalId("9b2f6c1e-0000-4000-8000-" + String.format("%012d", id))
+                .name("Nombre" + id)
+                .lastName("Apellido" + id)
+                .email("usuario" + id + "@example.com")
+                .phone("+34600" + String.format("%06d", id))
+                .role("USER")
+                .build();
+    }
+
+    static List<UserEntity> users(int size) {
+        List<UserEntity> users = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,52 @@
+package com.salaverryandres.usermanagement.benchmark;
+
+import com.salaverryandres.usermanagement.application.exception.BadRequestException;
+import com.salaverryandres.usermanagement.application.exception.NotFoundException;
+import com.salaverryandres.usermanagement.infrastructure.exception.GlobalExceptionHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de construir el cuerpo de error. La excepción se crea una vez en el setup:
+ * aquí no se mide el coste de rellenar la pila.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private BadRequestException badRequest;
+    private NotFoundException notFound;
+
+    @Setup
+    public void setUp() {
+        handler = new GlobalExceptionHandler();
+        badRequest = new BadRequestException("El email ya está registrado en Cognito");
+        notFound = new NotFoundException("Usuario no encontrado");
+    }
+
+    @Benchmark
+    public ResponseEntity<?> handleBadRequest() {
+        return handler.handleBadRequest(badRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> handleNotFound() {
+        return handler.handleNotFound(notFound);
+    }
+}
@@ -0,0 +1,61 @@
+package com.salaverryandres.usermanagement.benchmark;
+
+import com.salaverryandres.usermanagement.infrastructure.security.JwtAuthConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthConverterBenchmark {
+
+    private JwtAuthConverter converter;
+    private Jwt cacheableJwt;
+    private Jwt uncacheableJwt;
+
+    @Setup
+    public void setUp() {
+        converter = new JwtAuthConverter();
+        Instant now = Instant.now();
+        cacheableJwt = jwt("jti-1").issuedAt(now).expiresAt(now.plusSeconds(3600)).build();
+        // Sin exp no se cachea: mide la extracción completa de authorities
+        uncacheableJwt = jwt("jti-2").build();
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> convertCached() {
+        return converter.convert(cacheableJwt);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> convertUncached() {
+        return converter.convert(uncacheableJwt);
+    }
+
+    private static Jwt.Builder jwt(String jti) {
+        return Jwt.withTokenValue("token-" + jti)
+                .header("alg", "RS256")
+                .subject("sub-123")
+                .jti(jti)
+                .claim("scope", "openid email profile")
+                .claim("cognito:groups", List.of("USER", "ADMIN"));
+    }
+}
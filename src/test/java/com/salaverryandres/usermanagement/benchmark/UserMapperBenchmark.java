@@ -0,0 +1,54 @@
+package com.salaverryandres.usermanagement.benchmark;
+
+import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.mapper.UserMapper;
+import com.salaverryandres.usermanagement.application.mapper.UserMapperImpl;
+import com.salaverryandres.usermanagement.domain.entity.UserEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    // Tamaños de página habituales de GET /api/users
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private UserMapper mapper;
+    private UserEntity entity;
+    private List<UserEntity> entities;
+
+    @Setup
+    public void setUp() {
+        mapper = new UserMapperImpl();
+        entity = BenchmarkData.user(1);
+        entities = BenchmarkData.users(pageSize);
+    }
+
+    @Benchmark
+    public UserDto toDto() {
+        return mapper.toDto(entity);
+    }
+
+    @Benchmark
+    public List<UserDto> toDtoList() {
+        return mapper.toDtoList(entities);
+    }
+}
@@ -0,0 +1,110 @@
+package com.salaverryandres.usermanagement.benchmark;
+
+import com.salaverryandres.usermanagement.UserManagementApplication;
+import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.mapper.UserMapper;
+import com.salaverryandres.usermanagement.domain.entity.UserEntity;
+import com.salaverryandres.usermanagement.domain.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la lectura de una página de usuarios hidratando entidades (y mapeándolas
+ * después) frente a la proyección directa a {@link UserDto} en transacción de solo lectura.
+ * Con {@code -prof gc} se ve además la diferencia de memoria asignada por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPageQueryBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserMapper userMapper;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserManagementApplication.class)
+                .profiles("test", "cognito-stub")
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+                .run();
+
+        userRepository = context.getBean(UserRepository.class);
+        userMapper = context.getBean(UserMapper.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Camino anterior: entidades gestionadas con snapshot para dirty checking, flush al
+    // hacer commit y mapeo posterior a DTO
+    @Benchmark
+    public List<UserDto> entityPage() {
+        return readWrite.execute(status -> {
+            List<UserEntity> entities = userRepository.findAll(PageRequest.of(0, pageSize)).getContent();
+            return userMapper.toDtoList(entities);
+        });
+    }
+
+    @Benchmark
+    public List<UserDto> projectionPage() {
+        return readOnly.execute(status -> userRepository.findAllAsDto(PageRequest.of(0, pageSize)).getContent());
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        // El id ya no es IDENTITY (lo asigna el sequence pooled), así que se inserta explícito
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        long id = 0;
+        for (UserEntity user : BenchmarkData.users(ROWS)) {
+            rows.add(new Object[]{++id, user.getExternalId(), user.getName(), user.getLastName(),
+                    user.getEmail(), user.getPhone(), user.getRole()});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, external_id, name, last_name, email, phone, role)"
+                + " values (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+}
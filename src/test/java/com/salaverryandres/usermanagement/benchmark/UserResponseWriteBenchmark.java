@@ -0,0 +1,72 @@
+package com.salaverryandres.usermanagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.mapper.UserMapperImpl;
+import com.salaverryandres.usermanagement.domain.entity.UserEntity;
+import com.salaverryandres.usermanagement.infrastructure.config.CacheConfig;
+import com.salaverryandres.usermanagement.infrastructure.config.JacksonConfig;
+import com.salaverryandres.usermanagement.infrastructure.controller.UserJsonCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritura del cuerpo de GET /api/users/{externalId}: el camino anterior ({@code ResponseEntity<UserDto>},
+ * serializado por el converter de Jackson en cada petición) frente a los bytes de {@link UserJsonCache}.
+ * Con {@code -prof gc} se compara también la memoria asignada por petición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserResponseWriteBenchmark {
+
+    private MappingJackson2HttpMessageConverter jsonConverter;
+    private ByteArrayHttpMessageConverter bytesConverter;
+    private UserJsonCache userJsonCache;
+    private UserDto user;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+        jsonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        bytesConverter = new ByteArrayHttpMessageConverter();
+        userJsonCache = new UserJsonCache(objectMapper, new CaffeineCacheManager(CacheConfig.USER_JSON_BY_EXTERNAL_ID));
+
+        UserEntity entity = BenchmarkData.user(1);
+        entity.setVersion(1L);
+        user = new UserMapperImpl().toDto(entity);
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage serializeDto() throws IOException {
+        MockHttpOutputMessage response = new MockHttpOutputMessage();
+        jsonConverter.write(user, MediaType.APPLICATION_JSON, response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage cachedBytes() throws IOException {
+        MockHttpOutputMessage response = new MockHttpOutputMessage();
+        bytesConverter.write(userJsonCache.toJson(user), MediaType.APPLICATION_JSON, response);
+        return response;
+    }
+}
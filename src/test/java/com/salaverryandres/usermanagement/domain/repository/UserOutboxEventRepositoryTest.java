@@ -0,0 +1,88 @@
+package com.salaverryandres.usermanagement.domain.repository;
+
+import com.salaverryandres.usermanagement.domain.entity.UserOutboxEventEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Orden por usuario del outbox: findDispatchable solo entrega el evento pendiente más antiguo de cada
+ * usuario, de modo que una actualización reservada o en backoff retiene el borrado posterior.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "cognito-stub"})
+class UserOutboxEventRepositoryTest {
+
+    @Autowired
+    private UserOutboxEventRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void findDispatchable_shouldReturnOnlyOldestPendingEventPerUser() {
+        Instant now = Instant.now();
+        UserOutboxEventEntity update = save("sub-1", UserOutboxEventEntity.EventType.UPDATE_ATTRIBUTES,
+                UserOutboxEventEntity.Status.PENDING, now);
+        save("sub-1", UserOutboxEventEntity.EventType.DELETE_USER, UserOutboxEventEntity.Status.PENDING, now);
+        UserOutboxEventEntity otherUser = save("sub-2", UserOutboxEventEntity.EventType.UPDATE_ATTRIBUTES,
+                UserOutboxEventEntity.Status.PENDING, now);
+
+        assertThat(ids(dispatchable(now))).containsExactly(update.getId(), otherUser.getId());
+    }
+
+    @Test
+    void findDispatchable_shouldHoldLaterEvents_whileOldestIsLeasedOrBackingOff() {
+        Instant now = Instant.now();
+        save("sub-1", UserOutboxEventEntity.EventType.UPDATE_ATTRIBUTES,
+                UserOutboxEventEntity.Status.PENDING, now.plusSeconds(60));
+        save("sub-1", UserOutboxEventEntity.EventType.DELETE_USER, UserOutboxEventEntity.Status.PENDING, now);
+
+        assertThat(dispatchable(now)).isEmpty();
+    }
+
+    @Test
+    void findDispatchable_shouldReleaseLaterEvents_onceOldestHasFailed() {
+        Instant now = Instant.now();
+        save("sub-1", UserOutboxEventEntity.EventType.UPDATE_ATTRIBUTES, UserOutboxEventEntity.Status.FAILED, now);
+        UserOutboxEventEntity delete = save("sub-1", UserOutboxEventEntity.EventType.DELETE_USER,
+                UserOutboxEventEntity.Status.PENDING, now);
+
+        assertThat(ids(dispatchable(now))).containsExactly(delete.getId());
+    }
+
+    private List<UserOutboxEventEntity> dispatchable(Instant now) {
+        return transactionTemplate.execute(status -> outboxRepository.findDispatchable(
+                UserOutboxEventEntity.Status.PENDING, now, Limit.of(50)));
+    }
+
+    private static List<Long> ids(List<UserOutboxEventEntity> events) {
+        return events.stream().map(UserOutboxEventEntity::getId).toList();
+    }
+
+    private UserOutboxEventEntity save(String externalId, UserOutboxEventEntity.EventType type,
+                                       UserOutboxEventEntity.Status status, Instant nextAttemptAt) {
+        return outboxRepository.save(UserOutboxEventEntity.builder()
+                .eventType(type)
+                .username(externalId)
+                .status(status)
+                .attempts(0)
+                .nextAttemptAt(nextAttemptAt)
+                .createdAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,80 @@
+package com.salaverryandres.usermanagement.domain.repository;
+
+import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.domain.entity.UserEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Búsqueda por prefijo con el UNION de tres ramas: cada usuario aparece una sola vez, ordenado por la
+ * menor columna que coincide y después por id, y las páginas siguientes no pierden ni repiten filas.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "cognito-stub"})
+class UserRepositorySearchTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final String tag = "q" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final List<UserEntity> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll(created);
+    }
+
+    @Test
+    void searchByPrefix_shouldMergeColumnsOrderedByMatchingValue() {
+        UserEntity byName = save(tag.toUpperCase() + "b", "García", "a-" + tag + "@example.com");
+        UserEntity byLastName = save("Ana", tag + "a", "b-" + tag + "@example.com");
+        UserEntity byNameAndLastName = save(tag + "c", tag + "a", "c-" + tag + "@example.com");
+        UserEntity byEmail = save("Luis", "Pérez", tag + "d@example.com");
+        save("Otro", "Usuario", "e-" + tag + "@example.com");
+
+        Slice<UserDto> first = userRepository.searchByPrefix(tag + "%", PageRequest.of(0, 2));
+        Slice<UserDto> second = userRepository.searchByPrefix(tag + "%", PageRequest.of(1, 2));
+
+        assertThat(first.getContent()).extracting(UserDto::getId)
+                .containsExactly(byLastName.getId(), byNameAndLastName.getId());
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting(UserDto::getId)
+                .containsExactly(byName.getId(), byEmail.getId());
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.getContent().get(0).getEmail()).isEqualTo("a-" + tag + "@example.com");
+    }
+
+    @Test
+    void searchByPrefix_shouldTreatEscapedWildcardsLiterally() {
+        save(tag + "_x", "García", "f-" + tag + "@example.com");
+        save(tag + "yx", "García", "g-" + tag + "@example.com");
+
+        Slice<UserDto> result = userRepository.searchByPrefix(tag + "!_%", PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).extracting(UserDto::getName).containsExactly(tag + "_x");
+    }
+
+    private UserEntity save(String name, String lastName, String email) {
+        UserEntity user = userRepository.saveAndFlush(UserEntity.builder()
+                .externalId(UUID.randomUUID().toString())
+                .name(name)
+                .lastName(lastName)
+                .email(email)
+                .role("USER")
+                .build());
+        created.add(user);
+        return user;
+    }
+}
@@ -0,0 +1,36 @@
+package com.salaverryandres.usermanagement.infrastructure.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.salaverryandres.usermanagement.infrastructure.security.CachingJwtDecoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.util.UUID;
+
+/**
+ * Perfil {@code cognito-stub}: clave de firma local para los tokens de InMemoryCognitoService
+ * y un decoder que los valida sin salir a la red.
+ */
+@Configuration
+@Profile("cognito-stub")
+public class CognitoStubConfig {
+
+    @Bean
+    public RSAKey cognitoStubSigningKey() throws JOSEException {
+        return new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(RSAKey cognitoStubSigningKey,
+                                 @Value("${users.security.token-cache.maximum-size:10000}") long tokenCacheMaximumSize)
+            throws JOSEException {
+        JwtDecoder decoder = NimbusJwtDecoder.withPublicKey(cognitoStubSigningKey.toRSAPublicKey()).build();
+        return new CachingJwtDecoder(decoder, tokenCacheMaximumSize);
+    }
+}
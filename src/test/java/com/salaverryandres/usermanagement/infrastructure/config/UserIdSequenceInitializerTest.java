@@ -0,0 +1,75 @@
+package com.salaverryandres.usermanagement.infrastructure.config;
+
+import com.salaverryandres.usermanagement.domain.entity.UserEntity;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Alineación de users_seq en H2 (perfil dev con base en fichero): con el optimizador pooled, el primer
+ * bloque que reparta Hibernate tras arrancar tiene que empezar después del mayor id existente.
+ */
+class UserIdSequenceInitializerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private UserIdSequenceInitializer initializer;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sequence-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table users (id bigint primary key)");
+        initializer = new UserIdSequenceInitializer(jdbcTemplate);
+    }
+
+    @Test
+    void shouldMoveSequencePastExistingIds() {
+        jdbcTemplate.execute("create sequence users_seq start with 1 increment by " + UserEntity.ID_ALLOCATION_SIZE);
+        jdbcTemplate.update("insert into users (id) values (1), (2), (250)");
+
+        initializer.afterSingletonsInstantiated();
+
+        // nextval es el último id del bloque: el primero es nextval - ID_ALLOCATION_SIZE + 1
+        assertThat(firstIdOfNextBlock()).isEqualTo(251);
+    }
+
+    @Test
+    void shouldCreateSequence_whenMissing() {
+        jdbcTemplate.update("insert into users (id) values (42)");
+
+        initializer.afterSingletonsInstantiated();
+
+        assertThat(firstIdOfNextBlock()).isEqualTo(43);
+    }
+
+    @Test
+    void shouldNotMoveSequenceBack_whenAlreadyAhead() {
+        jdbcTemplate.execute("create sequence users_seq start with 1000 increment by " + UserEntity.ID_ALLOCATION_SIZE);
+        jdbcTemplate.update("insert into users (id) values (5)");
+
+        initializer.afterSingletonsInstantiated();
+        initializer.afterSingletonsInstantiated();
+
+        assertThat(nextValue()).isEqualTo(1000);
+    }
+
+    @Test
+    void shouldLeaveSequenceUntouched_whenTableIsEmpty() {
+        initializer.afterSingletonsInstantiated();
+
+        assertThat(nextValue()).isEqualTo(1);
+    }
+
+    private long firstIdOfNextBlock() {
+        return nextValue() - UserEntity.ID_ALLOCATION_SIZE + 1;
+    }
+
+    private long nextValue() {
+        return jdbcTemplate.queryForObject("select next value for users_seq", Long.class);
+    }
+}
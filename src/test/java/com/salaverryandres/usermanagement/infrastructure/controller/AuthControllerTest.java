@@ -4,7 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.salaverryandres.usermanagement.application.dto.ChangePasswordRequestDto;
 import com.salaverryandres.usermanagement.application.dto.LoginRequestDto;
 import com.salaverryandres.usermanagement.application.dto.LoginResponseDto;
-import com.salaverryandres.usermanagement.domain.service.CognitoService;
+import com.salaverryandres.usermanagement.application.exception.RateLimitExceededException;
+import com.salaverryandres.usermanagement.domain.service.CognitoAsyncService;
+import com.salaverryandres.usermanagement.infrastructure.security.LoginRateLimiter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,11 +18,23 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -36,7 +50,10 @@ class AuthControllerTest {
     private MockMvc mockMvc;
 
     @Autowired
-    private CognitoService cognitoService; // el mock manual
+    private CognitoAsyncService cognitoService; // el mock manual
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -54,11 +71,15 @@ class AuthControllerTest {
                 .build();
 
         when(cognitoService.login(request.getEmail(), request.getPassword()))
-                .thenReturn(response);
+                .thenReturn(CompletableFuture.completedFuture(response));
 
-        mockMvc.perform(post("/auth/login")
+        MvcResult result = mockMvc.perform(post("/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.accessToken").value("access-token"))
                 .andExpect(jsonPath("$.refreshToken").value("refresh-token"));
@@ -79,21 +100,54 @@ class AuthControllerTest {
 
         when(cognitoService.respondToNewPasswordChallenge(
                 request.getEmail(), request.getNewPassword(), request.getSession()))
-                .thenReturn(response);
+                .thenReturn(CompletableFuture.completedFuture(response));
 
-        mockMvc.perform(post("/auth/change-password")
+        MvcResult result = mockMvc.perform(post("/auth/change-password")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.accessToken").value("new-access-token"))
                 .andExpect(jsonPath("$.refreshToken").value("new-refresh-token"));
     }
 
+    @Test
+    void login_shouldReturn429WithoutCallingCognito_whenRateLimited() throws Exception {
+        LoginRequestDto request = LoginRequestDto.builder()
+                .email("bloqueado@example.com")
+                .password("password123")
+                .build();
+
+        doThrow(new RateLimitExceededException("Demasiados intentos de inicio de sesión para este usuario",
+                Duration.ofMillis(1500)))
+                .when(loginRateLimiter).acquire(anyString(), anyString());
+
+        try {
+            mockMvc.perform(post("/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "2"));
+
+            verify(cognitoService, never()).login("bloqueado@example.com", "password123");
+        } finally {
+            reset(loginRateLimiter);
+        }
+    }
+
     @TestConfiguration
     static class TestConfig {
         @Bean
-        public CognitoService cognitoService() {
-            return mock(CognitoService.class);
+        public CognitoAsyncService cognitoService() {
+            return mock(CognitoAsyncService.class);
+        }
+
+        @Bean
+        public LoginRateLimiter loginRateLimiter() {
+            return mock(LoginRateLimiter.class);
         }
     }
 
@@ -1,35 +1,60 @@
 package com.salaverryandres.usermanagement.infrastructure.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.salaverryandres.usermanagement.application.dto.UserCreateRequestDto;
 import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.dto.UserFieldsPageResponse;
 import com.salaverryandres.usermanagement.application.dto.UserPageResponse;
+import com.salaverryandres.usermanagement.application.dto.UserPatchRequestDto;
+import com.salaverryandres.usermanagement.application.dto.UserVersionDto;
+import com.salaverryandres.usermanagement.application.exception.PreconditionFailedException;
+import com.salaverryandres.usermanagement.application.pagination.TotalCountMode;
+import com.salaverryandres.usermanagement.application.projection.UserField;
+import com.salaverryandres.usermanagement.domain.service.UserImportService;
 import com.salaverryandres.usermanagement.domain.service.UserService;
+import com.salaverryandres.usermanagement.infrastructure.config.CacheConfig;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -100,7 +125,7 @@ class UserControllerTest {
                 .role("USER")
                 .build();
 
-        when(userService.updateUser(eq(externalId), any(UserCreateRequestDto.class)))
+        when(userService.updateUser(eq(externalId), any(UserCreateRequestDto.class), isNull()))
                 .thenReturn(updatedDto);
 
         mockMvc.perform(put("/api/users/{externalId}", externalId)
@@ -111,6 +136,86 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.name").value("Updated"));
     }
 
+    @Test
+    void updateUser_withIfMatch_shouldPassExpectedVersionAndReturnNewETag() throws Exception {
+        UserCreateRequestDto requestDto = UserCreateRequestDto.builder()
+                .name("Updated")
+                .lastName("User")
+                .email("updated.user@example.com")
+                .build();
+
+        when(userService.updateUser(eq("abc-123"), any(UserCreateRequestDto.class), eq(3L)))
+                .thenReturn(UserDto.builder().externalId("abc-123").version(4L).build());
+
+        mockMvc.perform(put("/api/users/{externalId}", "abc-123")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void updateUser_withCborIfMatch_shouldPassSameVersion() throws Exception {
+        UserCreateRequestDto requestDto = UserCreateRequestDto.builder()
+                .name("Updated")
+                .lastName("User")
+                .email("updated.user@example.com")
+                .build();
+
+        when(userService.updateUser(eq("abc-123"), any(UserCreateRequestDto.class), eq(3L)))
+                .thenReturn(UserDto.builder().externalId("abc-123").version(4L).build());
+
+        mockMvc.perform(put("/api/users/{externalId}", "abc-123")
+                        .header("If-Match", "\"3-cbor\"")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", "\"4-cbor\""));
+    }
+
+    @Test
+    void updateUser_withStaleIfMatch_shouldReturnPreconditionFailed() throws Exception {
+        UserCreateRequestDto requestDto = UserCreateRequestDto.builder()
+                .name("Updated")
+                .lastName("User")
+                .email("updated.user@example.com")
+                .build();
+
+        when(userService.updateUser(eq("abc-123"), any(UserCreateRequestDto.class), eq(2L)))
+                .thenThrow(new PreconditionFailedException("El usuario ha cambiado desde la versión indicada en If-Match"));
+
+        mockMvc.perform(put("/api/users/{externalId}", "abc-123")
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void patchUser_shouldApplyPartialChanges() throws Exception {
+        when(userService.patchUser(eq("abc-123"), any(UserPatchRequestDto.class), isNull()))
+                .thenReturn(UserDto.builder().externalId("abc-123").phone("+34999999999").version(2L).build());
+
+        mockMvc.perform(patch("/api/users/{externalId}", "abc-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phone\":\"+34999999999\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.phone").value("+34999999999"));
+    }
+
+    @Test
+    void patchUser_withBlankName_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/users/{externalId}", "abc-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"  \"}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void deleteUser_shouldReturnNoContent() throws Exception {
         String externalId = "abc-123";
@@ -139,6 +244,132 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.name").value("John"));
     }
 
+    @Test
+    void getUserByExternalId_withMatchingIfNoneMatch_shouldReturnNotModifiedWithoutLoadingUser() throws Exception {
+        when(userService.getUserVersion("etag-123")).thenReturn(new UserVersionDto(7L, null));
+
+        mockMvc.perform(get("/api/users/{externalId}", "etag-123").header("If-None-Match", "\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"7\""))
+                .andExpect(content().string(""));
+
+        verify(userService, never()).getUserByExternalId("etag-123");
+    }
+
+    @Test
+    void getUserByExternalId_withStaleIfNoneMatch_shouldReturnUserAndETag() throws Exception {
+        when(userService.getUserVersion("etag-456")).thenReturn(new UserVersionDto(8L, null));
+        when(userService.getUserByExternalId("etag-456"))
+                .thenReturn(UserDto.builder().externalId("etag-456").version(8L).build());
+
+        mockMvc.perform(get("/api/users/{externalId}", "etag-456").header("If-None-Match", "\"7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"8\""))
+                .andExpect(jsonPath("$.externalId").value("etag-456"));
+    }
+
+    @Test
+    void getUserByExternalId_withCborAccept_shouldReturnCbor() throws Exception {
+        when(userService.getUserByExternalId("cbor-1"))
+                .thenReturn(UserDto.builder().externalId("cbor-1").name("John").version(3L).build());
+
+        MvcResult result = mockMvc.perform(get("/api/users/{externalId}", "cbor-1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", "\"3-cbor\""))
+                .andExpect(header().stringValues("Vary", hasItem(containsString("Accept"))))
+                .andReturn();
+
+        UserDto body = new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), UserDto.class);
+        assertThat(body.getExternalId()).isEqualTo("cbor-1");
+        assertThat(body.getName()).isEqualTo("John");
+    }
+
+    @Test
+    void getUserByExternalId_shouldUseOneETagPerRepresentation() throws Exception {
+        when(userService.getUserVersion("repr-1")).thenReturn(new UserVersionDto(4L, null));
+        when(userService.getUserByExternalId("repr-1"))
+                .thenReturn(UserDto.builder().externalId("repr-1").version(4L).build());
+
+        mockMvc.perform(get("/api/users/{externalId}", "repr-1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(header().stringValues("Vary", hasItem(containsString("Accept"))));
+        mockMvc.perform(get("/api/users/{externalId}", "repr-1").header("Accept", "application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().string("ETag", "\"4-smile\""));
+
+        // El ETag del JSON no sirve para validar la copia en CBOR, y al revés
+        mockMvc.perform(get("/api/users/{externalId}", "repr-1")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", "\"4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4-cbor\""));
+        mockMvc.perform(get("/api/users/{externalId}", "repr-1")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", "\"4-cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"4-cbor\""))
+                .andExpect(header().stringValues("Vary", hasItem(containsString("Accept"))));
+        mockMvc.perform(get("/api/users/{externalId}", "repr-1").header("If-None-Match", "\"4-cbor\""))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    void getUserByExternalId_preferringJson_shouldReturnJson() throws Exception {
+        when(userService.getUserByExternalId("json-1"))
+                .thenReturn(UserDto.builder().externalId("json-1").build());
+
+        mockMvc.perform(get("/api/users/{externalId}", "json-1")
+                        .header("Accept", "application/json, application/cbor;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.externalId").value("json-1"));
+    }
+
+    @Test
+    void getAllUsers_withCborAccept_shouldReturnCbor() throws Exception {
+        UserPageResponse pageResponse = new UserPageResponse();
+        pageResponse.setUsers(List.of(UserDto.builder().externalId("abc-123").build()));
+        pageResponse.setTotalElements(1);
+        when(userService.getAllUsers(any(), eq(TotalCountMode.EXACT))).thenReturn(pageResponse);
+
+        MvcResult result = mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        UserPageResponse body = new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), UserPageResponse.class);
+        assertThat(body.getTotalElements()).isEqualTo(1);
+        assertThat(body.getUsers()).extracting(UserDto::getExternalId).containsExactly("abc-123");
+    }
+
+    @Test
+    void getAllUsers_shouldUseOneETagPerRepresentation() throws Exception {
+        UserPageResponse pageResponse = new UserPageResponse();
+        pageResponse.setUsers(List.of(UserDto.builder().id(1L).externalId("abc-123").version(0L).build()));
+        pageResponse.setTotalElements(1);
+        when(userService.getAllUsers(any(), eq(TotalCountMode.EXACT))).thenReturn(pageResponse);
+
+        String jsonETag = mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("Vary", hasItem(containsString("Accept"))))
+                .andReturn().getResponse().getHeader("ETag");
+        String cborETag = mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("Vary", hasItem(containsString("Accept"))))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertThat(cborETag).isEqualTo(jsonETag.substring(0, jsonETag.length() - 1) + "-cbor\"");
+        mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", jsonETag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", cborETag))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     void getAllUsers_shouldReturnPage() throws Exception {
         UserDto user = UserDto.builder()
@@ -150,7 +381,7 @@ class UserControllerTest {
         pageResponse.setUsers(List.of(user));
         pageResponse.setTotalElements(1);
 
-        when(userService.getAllUsers(any())).thenReturn(pageResponse);
+        when(userService.getAllUsers(any(), eq(TotalCountMode.EXACT))).thenReturn(pageResponse);
 
         mockMvc.perform(get("/api/users"))
                 .andExpect(status().isOk())
@@ -158,6 +389,117 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.users[0].externalId").value("abc-123"));
     }
 
+    @Test
+    void getAllUsers_withFields_shouldReturnOnlyRequestedFields() throws Exception {
+        UserFieldsPageResponse pageResponse = UserFieldsPageResponse.builder()
+                .users(List.of(Map.of("externalId", "abc-123", "email", "john@example.com")))
+                .totalElements(1)
+                .totalPages(1)
+                .pageSize(20)
+                .build();
+
+        when(userService.getAllUsers(any(), eq(TotalCountMode.EXACT), eq(EnumSet.of(UserField.EXTERNAL_ID, UserField.EMAIL))))
+                .thenReturn(pageResponse);
+
+        mockMvc.perform(get("/api/users").param("fields", "email, externalId"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.users[0].externalId").value("abc-123"))
+                .andExpect(jsonPath("$.users[0].email").value("john@example.com"))
+                .andExpect(jsonPath("$.users[0].name").doesNotExist());
+    }
+
+    @Test
+    void getAllUsers_withUnknownField_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users").param("fields", "externalId,password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllUsers_withFieldsAndCursor_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users").param("fields", "email").param("after", ""))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllUsers_withTotalNone_shouldSkipCount() throws Exception {
+        UserPageResponse pageResponse = UserPageResponse.builder()
+                .users(List.of(UserDto.builder().externalId("abc-123").build()))
+                .pageSize(20)
+                .hasNext(true)
+                .build();
+
+        when(userService.getAllUsers(any(), eq(TotalCountMode.NONE))).thenReturn(pageResponse);
+
+        mockMvc.perform(get("/api/users").param("total", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.users[0].externalId").value("abc-123"));
+    }
+
+    @Test
+    void getAllUsers_withUnknownTotal_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users").param("total", "sometimes"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllUsers_withAfterParam_shouldUseCursorMode() throws Exception {
+        UserPageResponse pageResponse = UserPageResponse.builder()
+                .users(List.of(UserDto.builder().externalId("abc-123").build()))
+                .pageSize(5)
+                .nextCursor("MTI")
+                .build();
+
+        when(userService.getUsersAfter("MTE", 5)).thenReturn(pageResponse);
+
+        mockMvc.perform(get("/api/users").param("after", "MTE").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("MTI"))
+                .andExpect(jsonPath("$.users[0].externalId").value("abc-123"));
+    }
+
+    @Test
+    void searchUsers_shouldReturnSliceWithHasNext() throws Exception {
+        UserPageResponse pageResponse = UserPageResponse.builder()
+                .users(List.of(UserDto.builder().externalId("abc-123").name("Ana").build()))
+                .currentPage(0)
+                .pageSize(20)
+                .hasNext(true)
+                .build();
+
+        when(userService.searchUsers(eq("an"), any())).thenReturn(pageResponse);
+
+        mockMvc.perform(get("/api/users/search").param("q", "an"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.users[0].name").value("Ana"));
+    }
+
+    @Test
+    void exportUsers_shouldStreamOneJsonObjectPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            consumer.accept(UserDto.builder().externalId("abc-123").build());
+            consumer.accept(UserDto.builder().externalId("def-456").build());
+            return null;
+        }).when(userService).streamAllUsers(any());
+
+        MvcResult result = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines.get(1), UserDto.class).getExternalId())
+                .isEqualTo("def-456");
+    }
+
     // Mockeamos UserService manualmente
     @TestConfiguration
     static class TestConfig {
@@ -165,6 +507,16 @@ class UserControllerTest {
         public UserService userService() {
             return mock(UserService.class);
         }
+
+        @Bean
+        public UserImportService userImportService() {
+            return mock(UserImportService.class);
+        }
+
+        @Bean
+        public UserJsonCache userJsonCache(ObjectMapper objectMapper) {
+            return new UserJsonCache(objectMapper, new ConcurrentMapCacheManager(CacheConfig.USER_JSON_BY_EXTERNAL_ID));
+        }
     }
 
     // Configuración de seguridad de prueba: permite todos los accesos
@@ -0,0 +1,57 @@
+package com.salaverryandres.usermanagement.infrastructure.controller;
+
+import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.infrastructure.config.CacheConfig;
+import com.salaverryandres.usermanagement.infrastructure.config.JacksonConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserJsonCacheTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.USER_JSON_BY_EXTERNAL_ID);
+    private final UserJsonCache cache = new UserJsonCache(new JacksonConfig().objectMapper(), cacheManager);
+
+    @Test
+    void toJson_shouldReuseBytes_forSameVersion() {
+        byte[] first = cache.toJson(user("Ana", 1L));
+        byte[] second = cache.toJson(user("Ana", 1L));
+
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first, StandardCharsets.UTF_8))
+                .contains("\"name\":\"Ana\"")
+                .doesNotContain("version");
+    }
+
+    @Test
+    void toJson_shouldReserialize_whenVersionChanges() {
+        cache.toJson(user("Ana", 1L));
+
+        byte[] updated = cache.toJson(user("Ana María", 2L));
+
+        assertThat(new String(updated, StandardCharsets.UTF_8)).contains("\"name\":\"Ana María\"");
+    }
+
+    @Test
+    void toJson_shouldReserialize_afterEviction() {
+        byte[] first = cache.toJson(user("Ana", 1L));
+
+        cacheManager.getCache(CacheConfig.USER_JSON_BY_EXTERNAL_ID).evict("sub-1");
+
+        assertThat(cache.toJson(user("Ana", 1L))).isNotSameAs(first).isEqualTo(first);
+    }
+
+    private static UserDto user(String name, Long version) {
+        return UserDto.builder()
+                .id(1L)
+                .externalId("sub-1")
+                .name(name)
+                .email("ana@example.com")
+                .role("USER")
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.salaverryandres.usermanagement.infrastructure.datasource;
+
+import com.salaverryandres.usermanagement.application.dto.UserCreateRequestDto;
+import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.dto.UserPatchRequestDto;
+import com.salaverryandres.usermanagement.domain.service.UserService;
+import com.salaverryandres.usermanagement.infrastructure.config.CacheConfig;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lectura tras escritura con réplicas activas: el primario es la H2 del perfil test y la réplica otra H2
+ * que no recibe los cambios, como una réplica con retraso. Tras un PATCH, la lectura que rellena la caché
+ * y la versión del 304 tienen que salir del primario aunque la réplica esté disponible.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "cognito-stub"})
+@TestPropertySource(properties = {
+        "users.datasource.replicas.enabled=true",
+        "users.datasource.replicas.urls=" + ReplicaReadAfterWriteTest.REPLICA_URL,
+        "users.datasource.replicas.lag-query=select lag_seconds from replication_status",
+        "users.datasource.replicas.check-interval-ms=3600000"
+})
+class ReplicaReadAfterWriteTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:stale-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(REPLICA_URL);
+        dataSource.setUser("sa");
+        replica = new JdbcTemplate(dataSource);
+        replica.execute("create table if not exists replication_status (lag_seconds double)");
+        replica.execute("delete from replication_status");
+        replica.execute("insert into replication_status values (0)");
+        replica.execute("create table if not exists users (id bigint primary key, external_id varchar(100),"
+                + " name varchar(100), last_name varchar(100), email varchar(150), phone varchar(15),"
+                + " role varchar(100), version bigint, updated_at timestamp(6) with time zone)");
+        replica.execute("delete from users");
+        lagMonitor.checkLag();
+    }
+
+    @Test
+    void readAfterWrite_shouldFillCacheFromPrimary_whileReplicaLags() {
+        String email = "replica-" + UUID.randomUUID() + "@example.com";
+        UserDto created = userService.createUser(UserCreateRequestDto.builder()
+                .name("Antes").lastName("Réplica").email(email).build());
+
+        // La réplica solo llega a ver el alta
+        replica.update("insert into users (id, external_id, name, last_name, email, role, version)"
+                        + " values (?, ?, 'Antes', 'Réplica', ?, 'USER', 0)",
+                created.getId(), created.getExternalId(), email);
+
+        // Escritura en el primario que la réplica todavía no ha aplicado
+        UserDto patched = userService.patchUser(created.getExternalId(),
+                UserPatchRequestDto.builder().name("Después").build(), null);
+        assertThat(userService.getAllUsers(PageRequest.of(0, 100)).getUsers())
+                .as("los listados de solo lectura siguen yendo a la réplica")
+                .filteredOn(user -> user.getExternalId().equals(created.getExternalId()))
+                .extracting(UserDto::getName)
+                .containsExactly("Antes");
+
+        UserDto read = userService.getUserByExternalId(created.getExternalId());
+        assertThat(read.getName()).isEqualTo("Después");
+        assertThat(read.getVersion()).isEqualTo(patched.getVersion());
+        assertThat(userService.getUserVersion(created.getExternalId()).getVersion()).isEqualTo(patched.getVersion());
+
+        Cache.ValueWrapper cached = cacheManager.getCache(CacheConfig.USERS_BY_EXTERNAL_ID).get(created.getExternalId());
+        assertThat(cached).isNotNull();
+        assertThat(((UserDto) cached.get()).getName()).isEqualTo("Después");
+    }
+
+    @Test
+    void checkLag_shouldRetireReplica_whenItIsNotReceivingWal() {
+        // La lag-query devuelve null si la réplica no tiene conexión de replicación con el primario
+        replica.update("update replication_status set lag_seconds = null");
+
+        lagMonitor.checkLag();
+
+        assertThat(routingDataSource.getReplicas()).noneMatch(ReplicaRoutingDataSource.Replica::isAvailable);
+    }
+}
@@ -0,0 +1,91 @@
+package com.salaverryandres.usermanagement.infrastructure.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcDataSource replicaDb;
+    private ReplicaRoutingDataSource.Replica replica;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource primaryDb = h2("primary");
+        replicaDb = h2("replica");
+        new JdbcTemplate(replicaDb).execute("create table replication_status (lag_seconds double)");
+        new JdbcTemplate(replicaDb).execute("insert into replication_status values (0)");
+
+        replica = new ReplicaRoutingDataSource.Replica("replica-0", replicaDb);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDb, List.of(replica));
+        lagMonitor = new ReplicaLagMonitor(routing, "select lag_seconds from replication_status",
+                Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDb);
+        dataSource.setReadOnlyDataSource(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUseReplica_whenLagIsBelowThreshold() {
+        lagMonitor.checkLag();
+
+        assertThat(readOnly.execute(status -> currentDatabase())).startsWith("replica");
+        assertThat(readWrite.execute(status -> currentDatabase())).startsWith("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUsePrimary_untilLagIsChecked() {
+        assertThat(readOnly.execute(status -> currentDatabase())).startsWith("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_shouldFallBackToPrimary_whenReplicaLags() {
+        lagMonitor.checkLag();
+        new JdbcTemplate(replicaDb).update("update replication_status set lag_seconds = 30");
+        lagMonitor.checkLag();
+
+        assertThat(replica.isAvailable()).isFalse();
+        assertThat(replica.getLagSeconds()).isEqualTo(30.0);
+        assertThat(readOnly.execute(status -> currentDatabase())).startsWith("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_shouldFallBackToPrimary_whenLagCannotBeMeasured() {
+        lagMonitor.checkLag();
+        new JdbcTemplate(replicaDb).execute("drop table replication_status");
+        lagMonitor.checkLag();
+
+        assertThat(replica.isAvailable()).isFalse();
+        assertThat(readOnly.execute(status -> currentDatabase())).startsWith("primary");
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select database()", String.class).toLowerCase();
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,55 @@
+package com.salaverryandres.usermanagement.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.NotAuthorizedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CognitoMetricsInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CognitoMetricsInterceptor interceptor = new CognitoMetricsInterceptor(registry);
+
+    @Test
+    void shouldRecordSuccessPerOperation() {
+        ExecutionAttributes attributes = attributes("AdminCreateUser");
+
+        interceptor.beforeExecution(mock(Context.BeforeExecution.class), attributes);
+        interceptor.afterExecution(mock(Context.AfterExecution.class), attributes);
+
+        Timer timer = registry.find(CognitoMetricsInterceptor.METRIC_NAME)
+                .tags("operation", "AdminCreateUser", "outcome", "success", "exception", "none")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTagFailuresWithAwsExceptionType() {
+        ExecutionAttributes attributes = attributes("InitiateAuth");
+        Context.FailedExecution failed = mock(Context.FailedExecution.class);
+        when(failed.exception()).thenReturn(NotAuthorizedException.builder().message("Incorrect username or password.").build());
+
+        interceptor.beforeExecution(mock(Context.BeforeExecution.class), attributes);
+        interceptor.onExecutionFailure(failed, attributes);
+
+        Timer timer = registry.find(CognitoMetricsInterceptor.METRIC_NAME)
+                .tags("operation", "InitiateAuth", "outcome", "error", "exception", "NotAuthorizedException")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    private static ExecutionAttributes attributes(String operation) {
+        ExecutionAttributes attributes = new ExecutionAttributes();
+        attributes.putAttribute(SdkExecutionAttribute.OPERATION_NAME, operation);
+        return attributes;
+    }
+}
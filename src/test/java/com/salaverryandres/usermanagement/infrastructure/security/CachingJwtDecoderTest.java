@@ -0,0 +1,51 @@
+package com.salaverryandres.usermanagement.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingJwtDecoderTest {
+
+    private final JwtDecoder delegate = mock(JwtDecoder.class);
+    private final CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100);
+
+    @Test
+    void decode_shouldVerifyTokenOnlyOnce_whenTokenNotExpired() {
+        Jwt jwt = jwt("token-1", Instant.now().plusSeconds(3600));
+        when(delegate.decode("token-1")).thenReturn(jwt);
+
+        assertThat(decoder.decode("token-1")).isSameAs(jwt);
+        assertThat(decoder.decode("token-1")).isSameAs(jwt);
+
+        verify(delegate, times(1)).decode("token-1");
+    }
+
+    @Test
+    void decode_shouldNotCache_whenDelegateRejectsToken() {
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("firma inválida"));
+
+        assertThatThrownBy(() -> decoder.decode("bad")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("bad")).isInstanceOf(BadJwtException.class);
+
+        verify(delegate, times(2)).decode("bad");
+    }
+
+    private static Jwt jwt(String value, Instant expiresAt) {
+        return Jwt.withTokenValue(value)
+                .header("alg", "RS256")
+                .subject("sub-123")
+                .issuedAt(expiresAt.minusSeconds(3600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
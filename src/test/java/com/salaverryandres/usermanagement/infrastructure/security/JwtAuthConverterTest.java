@@ -0,0 +1,81 @@
+package com.salaverryandres.usermanagement.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Caché de authorities por token: cada Jwt es un objeto nuevo en cada petición, así que un acierto se
+ * reconoce porque devuelve la misma lista aunque los claims del segundo Jwt sean otros.
+ */
+class JwtAuthConverterTest {
+
+    private final JwtAuthConverter converter = new JwtAuthConverter(100);
+
+    @Test
+    void convert_shouldMapCognitoGroupsToRoles() {
+        Collection<GrantedAuthority> authorities = converter.convert(
+                jwt("token-1", List.of("ADMIN", "USER"), Instant.now().plusSeconds(3600)));
+
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_USER");
+    }
+
+    @Test
+    void convert_shouldReuseAuthorities_forSameTokenString() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        Collection<GrantedAuthority> first = converter.convert(jwt("token-1", List.of("USER"), expiresAt));
+        Collection<GrantedAuthority> second = converter.convert(jwt("token-1", List.of("ADMIN"), expiresAt));
+
+        assertThat(second).isSameAs(first);
+        assertThat(second).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void convert_shouldNotShareAuthorities_betweenDifferentTokens() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        Collection<GrantedAuthority> user = converter.convert(jwt("token-user", List.of("USER"), expiresAt));
+        Collection<GrantedAuthority> admin = converter.convert(jwt("token-admin", List.of("ADMIN"), expiresAt));
+
+        assertThat(admin).isNotSameAs(user);
+        assertThat(admin).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void convert_shouldNotCache_expiredToken() {
+        Instant expiredAt = Instant.now().minusSeconds(60);
+        Collection<GrantedAuthority> first = converter.convert(jwt("token-old", List.of("USER"), expiredAt));
+        Collection<GrantedAuthority> second = converter.convert(jwt("token-old", List.of("ADMIN"), expiredAt));
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void convert_shouldRecompute_onceTokenExpires() throws InterruptedException {
+        Instant expiresAt = Instant.now().plusMillis(300);
+        Collection<GrantedAuthority> first = converter.convert(jwt("token-short", List.of("USER"), expiresAt));
+
+        Thread.sleep(500);
+        Collection<GrantedAuthority> second = converter.convert(jwt("token-short", List.of("ADMIN"), expiresAt));
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+    }
+
+    private static Jwt jwt(String value, List<String> groups, Instant expiresAt) {
+        return Jwt.withTokenValue(value)
+                .header("alg", "RS256")
+                .subject("sub-123")
+                .claim("cognito:groups", groups)
+                .issuedAt(expiresAt.minusSeconds(3600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
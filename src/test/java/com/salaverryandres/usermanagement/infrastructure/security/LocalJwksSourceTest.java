@@ -0,0 +1,180 @@
+package com.salaverryandres.usermanagement.infrastructure.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Claves de Cognito desde la copia local: el arranque no toca el emisor, un kid desconocido lanza un
+ * refresco (como mucho uno por min-refetch-interval) y si el emisor no responde se sigue con la copia.
+ * El emisor es un HttpServer del JDK que cuenta las descargas.
+ */
+class LocalJwksSourceTest {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(300);
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer issuer;
+    private final AtomicReference<String> served = new AtomicReference<>();
+    private final AtomicInteger downloads = new AtomicInteger();
+    private volatile Duration responseDelay = Duration.ZERO;
+
+    private RSAKey current;
+    private RSAKey rotated;
+    private Path snapshotFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        current = new RSAKeyGenerator(2048).keyID("kid-current").generate();
+        rotated = new RSAKeyGenerator(2048).keyID("kid-rotated").generate();
+        snapshotFile = tempDir.resolve("jwks.json");
+
+        issuer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        issuer.createContext("/.well-known/jwks.json", exchange -> {
+            downloads.incrementAndGet();
+            try {
+                Thread.sleep(responseDelay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = served.get().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            } catch (IOException e) {
+                // el cliente ya ha abandonado la petición (timeout)
+            }
+        });
+        issuer.setExecutor(Executors.newCachedThreadPool());
+        issuer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        issuer.stop(0);
+    }
+
+    @Test
+    void loadSnapshot_shouldServeKeysFromFile_withoutCallingIssuer() throws Exception {
+        writeSnapshot(current);
+
+        LocalJwksSource source = source(Duration.ofSeconds(30));
+        source.loadSnapshot();
+
+        assertThat(lookup(source, "kid-current")).containsExactly("kid-current");
+        assertThat(downloads).hasValue(0);
+    }
+
+    @Test
+    void get_withUnknownKid_shouldRefetchAndSaveNewSnapshot() throws Exception {
+        writeSnapshot(current);
+        served.set(jwks(current, rotated));
+        LocalJwksSource source = source(Duration.ofSeconds(30));
+        source.loadSnapshot();
+
+        // No bloquea la petición: la primera vez no hay clave, el refresco va en segundo plano
+        assertThat(lookup(source, "kid-rotated")).isEmpty();
+        waitUntil(() -> !lookup(source, "kid-rotated").isEmpty());
+
+        assertThat(downloads).hasValue(1);
+        assertThat(keyIds(JWKSet.load(snapshotFile.toFile()).getKeys()))
+                .containsExactlyInAnyOrder("kid-current", "kid-rotated");
+    }
+
+    @Test
+    void get_withUnknownKid_shouldRefetchAtMostOncePerMinInterval() throws Exception {
+        writeSnapshot(current);
+        served.set(jwks(current));
+        LocalJwksSource source = source(Duration.ofHours(1));
+        source.loadSnapshot();
+
+        lookup(source, "kid-unknown");
+        waitUntil(() -> downloads.get() == 1);
+        for (int i = 0; i < 20; i++) {
+            assertThat(lookup(source, "kid-unknown-" + i)).isEmpty();
+        }
+        Thread.sleep(200);
+
+        assertThat(downloads).hasValue(1);
+    }
+
+    @Test
+    void scheduledRefresh_whenIssuerTimesOut_shouldKeepSnapshotKeys() throws Exception {
+        writeSnapshot(current);
+        String snapshot = Files.readString(snapshotFile);
+        served.set(jwks(rotated));
+        responseDelay = TIMEOUT.multipliedBy(5);
+        LocalJwksSource source = source(Duration.ofSeconds(30));
+        source.loadSnapshot();
+
+        long start = System.nanoTime();
+        source.scheduledRefresh();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(responseDelay);
+        assertThat(downloads).hasValue(1);
+        assertThat(lookup(source, "kid-current")).containsExactly("kid-current");
+        assertThat(Files.readString(snapshotFile)).isEqualTo(snapshot);
+    }
+
+    private LocalJwksSource source(Duration minRefetchInterval) {
+        String uri = "http://127.0.0.1:" + issuer.getAddress().getPort() + "/.well-known/jwks.json";
+        return new LocalJwksSource(snapshotFile, uri, minRefetchInterval, TIMEOUT);
+    }
+
+    private void writeSnapshot(RSAKey... keys) throws IOException {
+        Files.writeString(snapshotFile, jwks(keys), StandardCharsets.UTF_8);
+    }
+
+    private static String jwks(RSAKey... keys) {
+        return new JWKSet(List.<JWK>of(keys)).toString();
+    }
+
+    // kid de las claves que devuelve la fuente para el kid pedido
+    private static List<String> lookup(LocalJwksSource source, String kid) {
+        try {
+            return keyIds(source.get(new JWKSelector(new JWKMatcher.Builder().keyID(kid).build()), null));
+        } catch (KeySourceException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> keyIds(List<JWK> keys) {
+        return keys.stream().map(JWK::getKeyID).toList();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("La condición no se cumplió en 5 s");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.salaverryandres.usermanagement.infrastructure.security;
+
+import com.salaverryandres.usermanagement.application.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTest {
+
+    private final LoginRateLimiter limiter = new LoginRateLimiter(new SimpleMeterRegistry(),
+            6, 3, 60, 10, 1_000, Duration.ofMinutes(10));
+
+    @Test
+    void acquire_shouldRejectAfterBurstForSameEmail() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("john@example.com", "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> limiter.acquire("JOHN@example.com ", "10.0.0.2"))
+                .isInstanceOfSatisfying(RateLimitExceededException.class,
+                        e -> assertThat(e.getRetryAfter()).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(10)));
+        assertThatCode(() -> limiter.acquire("jane@example.com", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void acquire_shouldRejectFloodFromSameIpAcrossEmails() {
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire("user" + i + "@example.com", "10.0.0.9");
+        }
+
+        assertThatThrownBy(() -> limiter.acquire("otro@example.com", "10.0.0.9"))
+                .isInstanceOf(RateLimitExceededException.class)
+                .hasMessageContaining("IP");
+    }
+}
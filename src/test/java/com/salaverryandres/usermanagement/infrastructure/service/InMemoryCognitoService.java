@@ -0,0 +1,232 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.salaverryandres.usermanagement.application.dto.LoginResponseDto;
+import com.salaverryandres.usermanagement.domain.service.CognitoService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.NotAuthorizedException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.TooManyRequestsException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UsernameExistsException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cognito en memoria para pruebas de carga sin user pool (perfil {@code cognito-stub}).
+ * Emite JWT firmados con una clave local que acepta el decoder del mismo perfil. Simula la latencia
+ * de red ({@code latency} + {@code jitter}) y responde con throttling (TooManyRequestsException, 429)
+ * en una fracción {@code error-rate} de las llamadas.
+ * Solo existe en el classpath de test: crea un ADMIN con contraseña conocida y firma tokens de ADMIN.
+ */
+@Slf4j
+@Service
+@CognitoBackend
+@Profile("cognito-stub")
+public class InMemoryCognitoService implements CognitoService {
+
+    private static final Duration TOKEN_TTL = Duration.ofHours(1);
+
+    private final Map<String, StubUser> usersByEmail = new ConcurrentHashMap<>();
+    private final Map<String, String> emailBySub = new ConcurrentHashMap<>();
+    private final JwtEncoder jwtEncoder;
+    private final String keyId;
+    private final String issuer;
+    private final Duration latency;
+    private final Duration jitter;
+    private final double errorRate;
+    private final String defaultPassword;
+
+    public InMemoryCognitoService(RSAKey cognitoStubSigningKey,
+                                  @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuer,
+                                  @Value("${users.cognito-stub.latency:50ms}") Duration latency,
+                                  @Value("${users.cognito-stub.jitter:0ms}") Duration jitter,
+                                  @Value("${users.cognito-stub.error-rate:0}") double errorRate,
+                                  @Value("${users.cognito-stub.default-password}") String defaultPassword,
+                                  @Value("${users.cognito-stub.admin-email}") String adminEmail,
+                                  @Value("${users.cognito-stub.admin-password}") String adminPassword) {
+        this.jwtEncoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(cognitoStubSigningKey)));
+        this.keyId = cognitoStubSigningKey.getKeyID();
+        this.issuer = issuer;
+        this.latency = latency;
+        this.jitter = jitter;
+        this.errorRate = errorRate;
+        this.defaultPassword = defaultPassword;
+
+        // Administrador inicial para poder dar de alta usuarios por la API
+        String adminSub = UUID.randomUUID().toString();
+        usersByEmail.put(adminEmail, new StubUser(adminSub, "Admin", adminEmail, null, adminPassword, Set.of("ADMIN")));
+        emailBySub.put(adminSub, adminEmail);
+        log.warn("Cognito simulado en memoria activo (latencia {} ± {}, error-rate {})", latency, jitter, errorRate);
+    }
+
+    @Override
+    public String registerUser(String name, String email, String phone) {
+        simulateCall();
+        String sub = UUID.randomUUID().toString();
+        StubUser user = new StubUser(sub, name, email, phone, defaultPassword, ConcurrentHashMap.newKeySet());
+        if (usersByEmail.putIfAbsent(email, user) != null) {
+            throw UsernameExistsException.builder().statusCode(400).message("User account already exists").build();
+        }
+        emailBySub.put(sub, email);
+        return sub;
+    }
+
+    @Override
+    public void updateUserAttributes(String username, String name, String email, String phone) {
+        simulateCall();
+        StubUser user = find(username);
+        StubUser updated = new StubUser(user.sub(), name, email, phone, user.password(), user.groups());
+        usersByEmail.remove(user.email());
+        usersByEmail.put(email, updated);
+        emailBySub.put(user.sub(), email);
+    }
+
+    @Override
+    public void updateUserAttributes(String username, Map<String, String> attributes) {
+        StubUser user = find(username);
+        updateUserAttributes(username,
+                attributes.getOrDefault(ATTRIBUTE_NAME, user.name()),
+                attributes.getOrDefault(ATTRIBUTE_EMAIL, user.email()),
+                attributes.getOrDefault(ATTRIBUTE_PHONE, user.phone()));
+    }
+
+    @Override
+    public void deleteUserAttributes(String username, List<String> attributeNames) {
+        StubUser user = find(username);
+        updateUserAttributes(username, user.name(), user.email(),
+                attributeNames.contains(ATTRIBUTE_PHONE) ? null : user.phone());
+    }
+
+    @Override
+    public void deleteUser(String username) {
+        simulateCall();
+        StubUser user = find(username);
+        usersByEmail.remove(user.email());
+        emailBySub.remove(user.sub());
+    }
+
+    @Override
+    public void addUserToGroup(String username, String groupName) {
+        simulateCall();
+        find(username).groups().add(groupName);
+    }
+
+    @Override
+    public LoginResponseDto login(String email, String password) {
+        try {
+            simulateCall();
+            StubUser user = find(email);
+            if (!user.password().equals(password)) {
+                throw NotAuthorizedException.builder().statusCode(400).message("Incorrect username or password.").build();
+            }
+            return issueTokens(user);
+        } catch (Exception e) {
+            throw CognitoRequests.loginError(e);
+        }
+    }
+
+    @Override
+    public LoginResponseDto respondToNewPasswordChallenge(String email, String newPassword, String session) {
+        try {
+            simulateCall();
+            StubUser user = find(email);
+            StubUser updated = new StubUser(user.sub(), user.name(), user.email(), user.phone(), newPassword, user.groups());
+            usersByEmail.put(user.email(), updated);
+            return issueTokens(updated);
+        } catch (Exception e) {
+            throw CognitoRequests.changePasswordError(e);
+        }
+    }
+
+    @Override
+    public void logout(String username) {
+        try {
+            simulateCall();
+            find(username);
+        } catch (Exception e) {
+            throw CognitoRequests.logoutError(e);
+        }
+    }
+
+    // Como en Cognito, el username puede ser el email o el sub
+    private StubUser find(String username) {
+        String email = emailBySub.getOrDefault(username, username);
+        StubUser user = usersByEmail.get(email);
+        if (user == null) {
+            throw UserNotFoundException.builder().statusCode(400).message("User does not exist.").build();
+        }
+        return user;
+    }
+
+    private LoginResponseDto issueTokens(StubUser user) {
+        Instant now = Instant.now();
+        JwtClaimsSet.Builder access = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .subject(user.sub())
+                .id(UUID.randomUUID().toString())
+                .issuedAt(now)
+                .expiresAt(now.plus(TOKEN_TTL))
+                .claim("token_use", "access")
+                .claim("username", user.email());
+        if (!user.groups().isEmpty()) {
+            access.claim("cognito:groups", List.copyOf(user.groups()));
+        }
+        JwtClaimsSet id = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .subject(user.sub())
+                .issuedAt(now)
+                .expiresAt(now.plus(TOKEN_TTL))
+                .claim("token_use", "id")
+                .claim("email", user.email())
+                .build();
+
+        return LoginResponseDto.builder()
+                .accessToken(encode(access.build()))
+                .idToken(encode(id))
+                .refreshToken(UUID.randomUUID().toString())
+                .expiresIn((int) TOKEN_TTL.toSeconds())
+                .tokenType("Bearer")
+                .build();
+    }
+
+    private String encode(JwtClaimsSet claims) {
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).keyId(keyId).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    private void simulateCall() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delayMillis = latency.toMillis() + (jitter.isZero() ? 0 : random.nextLong(jitter.toMillis() + 1));
+        if (delayMillis > 0) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            throw TooManyRequestsException.builder().statusCode(429).message("Rate exceeded").build();
+        }
+    }
+
+    private record StubUser(String sub, String name, String email, String phone, String password, Set<String> groups) {
+    }
+}
@@ -0,0 +1,250 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import com.salaverryandres.usermanagement.application.dto.LoginResponseDto;
+import com.salaverryandres.usermanagement.application.exception.BadRequestException;
+import com.salaverryandres.usermanagement.application.exception.ServiceUnavailableException;
+import com.salaverryandres.usermanagement.domain.service.CognitoService;
+import com.salaverryandres.usermanagement.infrastructure.resilience.AdaptiveConcurrencyLimiter;
+import com.salaverryandres.usermanagement.infrastructure.resilience.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.TooManyRequestsException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilientCognitoServiceTest {
+
+    private final StandInCognito cognito = new StandInCognito();
+
+    @Test
+    void login_shouldOpenCircuitAndShedLoad_whenCognitoThrottles() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(50, 10, 4, Duration.ofSeconds(30));
+        ResilientCognitoService service = service(limiter("auth", 10), circuitBreaker, limiter("admin", 10), breaker());
+        cognito.throttle = true;
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> service.login("john@example.com", "pwd"))
+                    .hasRootCauseInstanceOf(TooManyRequestsException.class);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> service.login("john@example.com", "pwd"))
+                .isInstanceOfSatisfying(ServiceUnavailableException.class,
+                        e -> assertThat(e.getRetryAfter()).isPositive());
+        assertThat(cognito.calls).hasValue(4); // con el circuito abierto no se llama a Cognito
+    }
+
+    @Test
+    void login_shouldNotCountBusinessErrorsAsFailures() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(50, 10, 4, Duration.ofSeconds(30));
+        ResilientCognitoService service = service(limiter("auth", 10), circuitBreaker, limiter("admin", 10), breaker());
+        cognito.wrongPassword = true;
+
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> service.login("john@example.com", "mala")).isInstanceOf(BadRequestException.class);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void login_shouldRejectImmediately_whenBulkheadIsFull() throws Exception {
+        ResilientCognitoService service = service(limiter("auth", 2), breaker(), limiter("admin", 2), breaker());
+        cognito.latency = Duration.ofMillis(300);
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<LoginResponseDto>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                results.add(executor.submit(() -> service.login("john@example.com", "pwd")));
+            }
+
+            int ok = 0;
+            int shed = 0;
+            for (Future<LoginResponseDto> result : results) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                    ok++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(ServiceUnavailableException.class);
+                    shed++;
+                }
+            }
+            assertThat(ok).isEqualTo(2);
+            assertThat(shed).isEqualTo(4);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void login_shouldStillWork_whenAdminBulkheadIsSaturated() throws Exception {
+        CircuitBreaker authBreaker = breaker();
+        CircuitBreaker adminBreaker = new CircuitBreaker(50, 10, 4, Duration.ofSeconds(30));
+        ResilientCognitoService service = service(limiter("auth", 2), authBreaker, limiter("admin", 1), adminBreaker);
+        cognito.blockAdmin = new CountDownLatch(1);
+
+        Thread admin = Thread.ofVirtual().start(() -> service.registerUser("Ana", "ana@example.com", null));
+        cognito.adminStarted.await(2, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> service.deleteUser("otro@example.com")).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(service.login("john@example.com", "pwd").getAccessToken()).isEqualTo("access");
+
+        cognito.blockAdmin.countDown();
+        admin.join();
+
+        // Cognito limita las llamadas de administración: se abre su circuito, no el de los logins.
+        // Con el alta anterior correcta, 3 fallos de 4 llamadas superan el 50 %
+        cognito.throttleAdmin = true;
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> service.deleteUser("otro@example.com"))
+                    .isInstanceOf(TooManyRequestsException.class);
+        }
+
+        assertThat(adminBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> service.deleteUser("otro@example.com")).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(authBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(service.login("john@example.com", "pwd").getAccessToken()).isEqualTo("access");
+    }
+
+    @Test
+    void limiter_shouldShrinkOnOverloadAndGrowOnFastCalls() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("auth", 10, 1, 20, Duration.ofMillis(100), 0.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.onOverload();
+        assertThat(limiter.getLimit()).isEqualTo(5);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(5);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private ResilientCognitoService service(AdaptiveConcurrencyLimiter auth, CircuitBreaker authBreaker,
+                                            AdaptiveConcurrencyLimiter admin, CircuitBreaker adminBreaker) {
+        return new ResilientCognitoService(cognito, auth, authBreaker, admin, adminBreaker);
+    }
+
+    // Límite fijo: min = max = inicial, así el test no depende de la adaptación
+    private static AdaptiveConcurrencyLimiter limiter(String name, int limit) {
+        return new AdaptiveConcurrencyLimiter(name, limit, limit, limit, Duration.ofSeconds(10), 0.9);
+    }
+
+    private static CircuitBreaker breaker() {
+        return new CircuitBreaker(50, 20, 10, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Sustituto local de Cognito con latencia y throttling configurables.
+     */
+    private static class StandInCognito implements CognitoService {
+
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch adminStarted = new CountDownLatch(1);
+        volatile Duration latency = Duration.ZERO;
+        volatile boolean throttle;
+        volatile boolean throttleAdmin;
+        volatile boolean wrongPassword;
+        volatile CountDownLatch blockAdmin;
+
+        @Override
+        public String registerUser(String name, String email, String phone) {
+            adminCall();
+            return "sub-" + email;
+        }
+
+        @Override
+        public void updateUserAttributes(String username, String name, String email, String phone) {
+            adminCall();
+        }
+
+        @Override
+        public void updateUserAttributes(String username, Map<String, String> attributes) {
+            adminCall();
+        }
+
+        @Override
+        public void deleteUserAttributes(String username, List<String> attributeNames) {
+            adminCall();
+        }
+
+        @Override
+        public void deleteUser(String username) {
+            adminCall();
+        }
+
+        @Override
+        public void addUserToGroup(String username, String groupName) {
+            adminCall();
+        }
+
+        @Override
+        public LoginResponseDto login(String email, String password) {
+            calls.incrementAndGet();
+            sleep(latency);
+            if (throttle) {
+                // CognitoServiceImpl envuelve los errores del SDK al hacer login
+                throw new RuntimeException("Error al iniciar sesión", TooManyRequestsException.builder()
+                        .statusCode(429)
+                        .message("Rate exceeded")
+                        .build());
+            }
+            if (wrongPassword) {
+                throw new BadRequestException("Credenciales incorrectas");
+            }
+            return LoginResponseDto.builder().accessToken("access").build();
+        }
+
+        @Override
+        public LoginResponseDto respondToNewPasswordChallenge(String email, String newPassword, String session) {
+            return login(email, newPassword);
+        }
+
+        @Override
+        public void logout(String username) {
+            calls.incrementAndGet();
+        }
+
+        private void adminCall() {
+            calls.incrementAndGet();
+            adminStarted.countDown();
+            CountDownLatch block = blockAdmin;
+            if (block != null) {
+                try {
+                    block.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (throttleAdmin) {
+                throw TooManyRequestsException.builder().statusCode(429).message("Rate exceeded").build();
+            }
+        }
+
+        private static void sleep(Duration duration) {
+            if (duration.isZero()) {
+                return;
+            }
+            try {
+                Thread.sleep(duration);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import com.salaverryandres.usermanagement.domain.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCountCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserCountCache cache = new UserCountCache(userRepository);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_shouldCountOnce_andThenUseCachedValue() {
+        when(userRepository.count()).thenReturn(10L);
+
+        assertThat(cache.get()).isEqualTo(10);
+        assertThat(cache.get()).isEqualTo(10);
+        verify(userRepository, times(1)).count();
+    }
+
+    @Test
+    void adjust_shouldApplyImmediately_withoutTransaction() {
+        when(userRepository.count()).thenReturn(10L);
+        cache.refresh();
+
+        cache.adjust(2);
+        cache.adjust(-1);
+
+        assertThat(cache.get()).isEqualTo(11);
+    }
+
+    @Test
+    void adjust_shouldWaitForCommit_insideTransaction() {
+        when(userRepository.count()).thenReturn(10L);
+        cache.refresh();
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.adjust(1);
+        assertThat(cache.get()).isEqualTo(10);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.get()).isEqualTo(11);
+    }
+
+    @Test
+    void adjust_shouldBeIgnored_untilFirstRefresh() {
+        cache.adjust(5);
+        when(userRepository.count()).thenReturn(3L);
+
+        assertThat(cache.get()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,248 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import com.salaverryandres.usermanagement.application.dto.UserCreateRequestDto;
+import com.salaverryandres.usermanagement.application.dto.UserImportResultDto;
+import com.salaverryandres.usermanagement.application.dto.UserImportRowResultDto;
+import com.salaverryandres.usermanagement.application.exception.ServiceUnavailableException;
+import com.salaverryandres.usermanagement.application.mapper.UserMapper;
+import com.salaverryandres.usermanagement.domain.entity.UserEntity;
+import com.salaverryandres.usermanagement.domain.repository.UserRepository;
+import com.salaverryandres.usermanagement.domain.service.CognitoService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InvalidParameterException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UsernameExistsException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceImplTest {
+
+    private static final Duration MAX_WAIT = Duration.ofMillis(300);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private CognitoService cognitoService;
+
+    @Mock
+    private UserCountCache userCountCache;
+
+    private UserImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new UserImportServiceImpl(userRepository, userMapper, cognitoService, userCountCache,
+                Validation.buildDefaultValidatorFactory().getValidator(), 2, 100, 1000, MAX_WAIT, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void importUsers_shouldReportEachRow() {
+        UserCreateRequestDto ok = row("ana@example.com");
+        UserCreateRequestDto existing = row("existing@example.com");
+        UserCreateRequestDto duplicated = row("ANA@example.com");
+        UserCreateRequestDto incomplete = UserCreateRequestDto.builder().email("x@example.com").build();
+        UserCreateRequestDto rejected = row("taken@example.com");
+
+        when(userRepository.findExistingEmails(anyList())).thenReturn(List.of("existing@example.com"));
+        when(cognitoService.registerUser("Ana", "ana@example.com", null)).thenReturn("sub-ana");
+        when(cognitoService.registerUser("Ana", "taken@example.com", null))
+                .thenThrow(mock(UsernameExistsException.class));
+        when(userMapper.toEntity(any())).thenAnswer(invocation -> {
+            UserCreateRequestDto dto = invocation.getArgument(0);
+            return UserEntity.builder().name(dto.getName()).lastName(dto.getLastName()).email(dto.getEmail()).build();
+        });
+
+        UserImportResultDto result = importService.importUsers(List.of(ok, existing, duplicated, incomplete, rejected));
+
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.getRows()).extracting(UserImportRowResultDto::getStatus).containsExactly(
+                UserImportRowResultDto.Status.CREATED,
+                UserImportRowResultDto.Status.FAILED,
+                UserImportRowResultDto.Status.FAILED,
+                UserImportRowResultDto.Status.FAILED,
+                UserImportRowResultDto.Status.FAILED);
+        assertThat(result.getRows().get(0).getExternalId()).isEqualTo("sub-ana");
+        assertThat(result.getRows().get(4).getError()).isEqualTo("El usuario ya existe en Cognito");
+
+        verify(cognitoService).addUserToGroup("ana@example.com", UserServiceImpl.GROUP_NAME);
+        verify(cognitoService, never()).registerUser(anyString(), eq("existing@example.com"), any());
+        verify(userRepository).saveAll(argThat((List<UserEntity> chunk) -> chunk.size() == 1));
+        verify(userCountCache).adjust(1);
+    }
+
+    @Test
+    void importUsers_whenBatchInsertFails_shouldRetryRowsAndUndoCognitoOnlyForFailedOnes() {
+        when(cognitoService.registerUser(anyString(), anyString(), any()))
+                .thenAnswer(invocation -> "sub-" + invocation.getArgument(1));
+        when(userMapper.toEntity(any())).thenAnswer(invocation -> {
+            UserCreateRequestDto dto = invocation.getArgument(0);
+            return UserEntity.builder().id(99L).version(0L)
+                    .name(dto.getName()).lastName(dto.getLastName()).email(dto.getEmail()).build();
+        });
+        when(userRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("lote"));
+        when(userRepository.save(any(UserEntity.class))).thenAnswer(invocation -> {
+            UserEntity entity = invocation.getArgument(0);
+            assertThat(entity.getId()).as("reintento como fila nueva").isNull();
+            if (entity.getEmail().equals("bad@example.com")) {
+                throw new DataIntegrityViolationException("fila");
+            }
+            return entity;
+        });
+
+        UserImportResultDto result = importService.importUsers(
+                List.of(row("ana@example.com"), row("bad@example.com"), row("luis@example.com")));
+
+        assertThat(result.getRows()).extracting(UserImportRowResultDto::getStatus).containsExactly(
+                UserImportRowResultDto.Status.CREATED,
+                UserImportRowResultDto.Status.FAILED,
+                UserImportRowResultDto.Status.CREATED);
+        assertThat(result.getRows().get(1).getError()).isEqualTo("Error al guardar el usuario en base de datos");
+        verify(cognitoService).deleteUser("bad@example.com");
+        verify(cognitoService, never()).deleteUser("ana@example.com");
+        verify(cognitoService, never()).deleteUser("luis@example.com");
+        verify(userCountCache).adjust(2);
+    }
+
+    @Test
+    void importUsers_whenAddToGroupFails_shouldDeleteCognitoUser() {
+        when(cognitoService.registerUser("Ana", "ana@example.com", null)).thenReturn("sub-ana");
+        doThrow(mock(InvalidParameterException.class))
+                .when(cognitoService).addUserToGroup("ana@example.com", UserServiceImpl.GROUP_NAME);
+
+        UserImportResultDto result = importService.importUsers(List.of(row("ana@example.com")));
+
+        assertThat(result.getRows().get(0).getStatus()).isEqualTo(UserImportRowResultDto.Status.FAILED);
+        verify(cognitoService).deleteUser("ana@example.com");
+        verify(userRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void importUsers_whenCognitoBulkheadIsFull_shouldWaitAndRetryRow() {
+        when(cognitoService.registerUser("Ana", "ana@example.com", null))
+                .thenThrow(new ServiceUnavailableException("Demasiadas peticiones a Cognito en curso", Duration.ofMillis(50)))
+                .thenReturn("sub-ana");
+        when(userMapper.toEntity(any())).thenAnswer(invocation -> {
+            UserCreateRequestDto dto = invocation.getArgument(0);
+            return UserEntity.builder().name(dto.getName()).lastName(dto.getLastName()).email(dto.getEmail()).build();
+        });
+
+        UserImportResultDto result = importService.importUsers(List.of(row("ana@example.com")));
+
+        assertThat(result.getRows().get(0).getStatus()).isEqualTo(UserImportRowResultDto.Status.CREATED);
+        assertThat(result.getRows().get(0).getExternalId()).isEqualTo("sub-ana");
+        verify(cognitoService, times(2)).registerUser("Ana", "ana@example.com", null);
+    }
+
+    @Test
+    void importUsers_whenCognitoStaysUnavailable_shouldFailRowWithoutDeletingAnything() {
+        when(cognitoService.registerUser("Ana", "ana@example.com", null))
+                .thenThrow(new ServiceUnavailableException("Cognito no está disponible temporalmente", Duration.ofMillis(100)));
+
+        UserImportResultDto result = importService.importUsers(List.of(row("ana@example.com")));
+
+        assertThat(result.getRows().get(0).getStatus()).isEqualTo(UserImportRowResultDto.Status.FAILED);
+        assertThat(result.getRows().get(0).getError())
+                .isEqualTo("Cognito no está disponible temporalmente; vuelva a importar esta fila");
+        verify(cognitoService, never()).deleteUser(anyString());
+        verify(userRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void importUsers_shouldMatchExistingEmailsIgnoringCase() {
+        when(userRepository.findExistingEmails(anyList())).thenReturn(List.of("existing@example.com"));
+
+        UserImportResultDto result = importService.importUsers(List.of(row("Existing@Example.COM")));
+
+        assertThat(result.getRows().get(0).getStatus()).isEqualTo(UserImportRowResultDto.Status.FAILED);
+        assertThat(result.getRows().get(0).getError()).isEqualTo("El email ya está registrado");
+        verify(userRepository).findExistingEmails(List.of("existing@example.com"));
+        verify(cognitoService, never()).registerUser(anyString(), anyString(), any());
+    }
+
+    @Test
+    void importUsers_shouldRejectRowsFailingBeanValidation() {
+        UserCreateRequestDto badEmail = row("no-es-un-email");
+        UserCreateRequestDto blankName = UserCreateRequestDto.builder()
+                .name(" ").lastName("García").email("blank@example.com").build();
+
+        UserImportResultDto result = importService.importUsers(List.of(badEmail, blankName));
+
+        assertThat(result.getCreated()).isZero();
+        assertThat(result.getRows()).extracting(UserImportRowResultDto::getError)
+                .allSatisfy(error -> assertThat(error).startsWith("Campos inválidos: "));
+        assertThat(result.getRows().get(0).getError()).contains("email");
+        assertThat(result.getRows().get(1).getError()).contains("name");
+        verify(cognitoService, never()).registerUser(anyString(), anyString(), any());
+    }
+
+    @Test
+    void importUsers_withVirtualThreads_shouldCapConcurrentCognitoCalls() {
+        UserImportServiceImpl virtualImport = new UserImportServiceImpl(userRepository, userMapper, cognitoService,
+                userCountCache, Validation.buildDefaultValidatorFactory().getValidator(), 2, 100, 1000, MAX_WAIT, true);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(cognitoService.registerUser(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return "sub-" + invocation.getArgument(1);
+        });
+        when(userMapper.toEntity(any())).thenAnswer(invocation -> {
+            UserCreateRequestDto dto = invocation.getArgument(0);
+            return UserEntity.builder().name(dto.getName()).lastName(dto.getLastName()).email(dto.getEmail()).build();
+        });
+
+        try {
+            UserImportResultDto result = virtualImport.importUsers(IntStream.range(0, 20)
+                    .mapToObj(i -> row("user" + i + "@example.com"))
+                    .toList());
+
+            assertThat(result.getCreated()).isEqualTo(20);
+            assertThat(maxInFlight.get()).isBetween(1, 2);
+        } finally {
+            virtualImport.shutdown();
+        }
+    }
+
+    private static UserCreateRequestDto row(String email) {
+        return UserCreateRequestDto.builder()
+                .name("Ana")
+                .lastName("García")
+                .email(email)
+                .build();
+    }
+}
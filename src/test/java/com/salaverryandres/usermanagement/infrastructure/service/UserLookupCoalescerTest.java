@@ -0,0 +1,88 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import com.salaverryandres.usermanagement.application.dto.UserDto;
+import com.salaverryandres.usermanagement.application.exception.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserLookupCoalescerTest {
+
+    private static final int FOLLOWERS = 5;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UserLookupCoalescer coalescer = new UserLookupCoalescer(registry);
+
+    @Test
+    void load_shouldShareOneDatabaseLoadBetweenConcurrentCallers() throws Exception {
+        UserDto user = UserDto.builder().externalId("sub-123").email("john@example.com").build();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<UserDto> loader = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return user;
+        };
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<UserDto> leader = executor.submit(() -> coalescer.load("sub-123", loader));
+            assertThat(loading.await(2, TimeUnit.SECONDS)).isTrue();
+
+            List<Future<UserDto>> followers = new ArrayList<>();
+            for (int i = 0; i < FOLLOWERS; i++) {
+                followers.add(executor.submit(() -> coalescer.load("sub-123", loader)));
+            }
+            waitForCoalesced(FOLLOWERS);
+            release.countDown();
+
+            assertThat(leader.get(2, TimeUnit.SECONDS)).isSameAs(user);
+            for (Future<UserDto> follower : followers) {
+                assertThat(follower.get(2, TimeUnit.SECONDS)).isSameAs(user);
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void load_shouldLoadAgain_onceThePreviousCallFinished() {
+        coalescer.load("sub-123", () -> UserDto.builder().build());
+
+        assertThatThrownBy(() -> coalescer.load("sub-123", () -> {
+            throw new NotFoundException("Usuario no encontrado");
+        })).isInstanceOf(NotFoundException.class);
+        assertThat(registry.get("users.lookup.coalesced").counter().count()).isZero();
+    }
+
+    private void waitForCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (registry.get("users.lookup.coalesced").counter().count() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(registry.get("users.lookup.coalesced").counter().count()).isEqualTo(expected);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.salaverryandres.usermanagement.infrastructure.service;
+
+import com.salaverryandres.usermanagement.domain.entity.UserOutboxEventEntity;
+import com.salaverryandres.usermanagement.domain.repository.UserOutboxEventRepository;
+import com.salaverryandres.usermanagement.domain.service.CognitoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InvalidParameterException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.TooManyRequestsException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserOutboxDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    private final UserOutboxEventRepository outboxRepository = mock(UserOutboxEventRepository.class);
+    private final CognitoService cognitoService = mock(CognitoService.class);
+    private UserOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        dispatcher = new UserOutboxDispatcher(outboxRepository, cognitoService, transactionTemplate,
+                50, MAX_ATTEMPTS, INITIAL_BACKOFF, LEASE);
+    }
+
+    @Test
+    void dispatch_shouldApplyUpdateAndDeleteEvent() {
+        UserOutboxEventEntity event = update(1L, "sub-1", 0);
+        when(outboxRepository.findDispatchable(eq(UserOutboxEventEntity.Status.PENDING), any(), any()))
+                .thenReturn(List.of(event));
+
+        dispatcher.dispatch();
+
+        verify(cognitoService).updateUserAttributes("sub-1", Map.of(CognitoService.ATTRIBUTE_NAME, "Ana"));
+        verify(outboxRepository).deleteById(1L);
+    }
+
+    @Test
+    void dispatch_shouldDeletePhone_whenEventPhoneIsEmpty() {
+        UserOutboxEventEntity event = update(1L, "sub-1", 0);
+        event.setName(null);
+        event.setPhone("");
+        when(outboxRepository.findDispatchable(eq(UserOutboxEventEntity.Status.PENDING), any(), any()))
+                .thenReturn(List.of(event));
+
+        dispatcher.dispatch();
+
+        verify(cognitoService).deleteUserAttributes("sub-1", List.of(CognitoService.ATTRIBUTE_PHONE));
+        verify(cognitoService, never()).updateUserAttributes(anyString(), anyMap());
+        verify(outboxRepository).deleteById(1L);
+    }
+
+    @Test
+    void dispatch_shouldLeaseEventsBeforeCallingCognito() {
+        UserOutboxEventEntity event = update(1L, "sub-1", 0);
+        when(outboxRepository.findDispatchable(eq(UserOutboxEventEntity.Status.PENDING), any(), any()))
+                .thenReturn(List.of(event));
+        AtomicReference<Instant> leasedUntil = new AtomicReference<>();
+        doAnswer(invocation -> {
+            leasedUntil.set(event.getNextAttemptAt());
+            return null;
+        }).when(cognitoService).updateUserAttributes(anyString(), anyMap());
+
+        Instant before = Instant.now();
+        dispatcher.dispatch();
+
+        // Mientras se llama a Cognito el evento no vuelve a estar disponible para otra pasada o instancia
+        assertThat(leasedUntil.get()).isAfterOrEqualTo(before.plus(LEASE));
+    }
+
+    @Test
+    void dispatch_shouldRetryWithExponentialBackoff_whenThrottled() {
+        UserOutboxEventEntity event = update(1L, "sub-1", 2);
+        when(outboxRepository.findDispatchable(eq(UserOutboxEventEntity.Status.PENDING), any(), any()))
+                .thenReturn(List.of(event));
+        doThrow(TooManyRequestsException.builder().statusCode(429).message("Rate exceeded").build())
+                .when(cognitoService).updateUserAttributes(anyString(), anyMap());
+
+        Instant before = Instant.now();
+        dispatcher.dispatch();
+
+        assertThat(event.getStatus()).isEqualTo(UserOutboxEventEntity.Status.PENDING);
+        assertThat(event.getAttempts()).isEqualTo(3);
+        assertThat(event.getLastError()).contains("Rate exceeded");
+        // tercer intento: 1s * 2^2; sigue PENDING, así que también retiene los eventos posteriores del usuario
+        assertThat(event.getNextAttemptAt())
+                .isAfterOrEqualTo(before.plusSeconds(4))
+                .isBefore(Instant.now().plusSeconds(5));
+        verify(outboxRepository).save(event);
+        verify(outboxRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void dispatch_shouldMarkFailed_whenErrorIsNotRetryable() {
+        UserOutboxEventEntity event = update(1L, "sub-1", 0);
+        when(outboxRepository.findDispatchable(eq(UserOutboxEventEntity.Status.PENDING), any(), any()))
+                .thenReturn(List.of(event));
+        doThrow(InvalidParameterException.builder().statusCode(400).message("Invalid email").build())
+                .when(cognitoService).updateUserAttributes(anyString(), anyMap());
+
+        dispatcher.dispatch();
+
+        assertThat(event.getStatus()).isEqualTo(UserOutboxEventEntity.Status.FAILED);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        verify(outboxRepository).save(event);
+    }
+
+    @Test
+    void dispatch_shouldMarkFailed_afterMaxAttempts() {
+        UserOutboxEventEntity event = update(1L, "sub-1", MAX_ATTEMPTS - 1);
+        when(outboxRepository.findDispatchable(eq(UserOutboxEventEntity.Status.PENDING), any(), any()))
+                .thenReturn(List.of(event));
+        doThrow(TooManyRequestsException.builder().statusCode(429).build())
+                .when(cognitoService).updateUserAttributes(anyString(), anyMap());
+
+        dispatcher.dispatch();
+
+        assertThat(event.getStatus()).isEqualTo(UserOutboxEventEntity.Status.FAILED);
+        assertThat(event.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+    }
+
+    @Test
+    void dispatch_shouldTreatMissingCognitoUserAsDeleted() {
+        UserOutboxEventEntity event = delete(2L, "sub-1", "ana@example.com");
+        when(outboxRepository.findDispatchable(eq(UserOutboxEventEntity.Status.PENDING), any(), any()))
+                .thenReturn(List.of(event));
+        doThrow(UserNotFoundException.builder().statusCode(400).build())
+                .when(cognitoService).deleteUser("ana@example.com");
+
+        dispatcher.dispatch();
+
+        verify(outboxRepository).deleteById(2L);
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    void dispatch_shouldDeleteLegacyEventsByUsername() {
+        UserOutboxEventEntity event = delete(3L, "ana@example.com", null);
+        when(outboxRepository.findDispatchable(eq(UserOutboxEventEntity.Status.PENDING), any(), any()))
+                .thenReturn(List.of(event));
+
+        dispatcher.dispatch();
+
+        verify(cognitoService).deleteUser("ana@example.com");
+        verify(outboxRepository).deleteById(3L);
+    }
+
+    @Test
+    void dispatch_shouldKeepGoingWithOtherUsers_whenOneFails() {
+        UserOutboxEventEntity failing = update(1L, "sub-1", 0);
+        UserOutboxEventEntity other = update(2L, "sub-2", 0);
+        when(outboxRepository.findDispatchable(eq(UserOutboxEventEntity.Status.PENDING), any(), any()))
+                .thenReturn(List.of(failing, other));
+        doThrow(TooManyRequestsException.builder().statusCode(429).build())
+                .when(cognitoService).updateUserAttributes(eq("sub-1"), anyMap());
+
+        dispatcher.dispatch();
+
+        verify(outboxRepository).save(failing);
+        verify(outboxRepository).deleteById(2L);
+    }
+
+    private static UserOutboxEventEntity update(Long id, String externalId, int attempts) {
+        return UserOutboxEventEntity.builder()
+                .id(id)
+                .eventType(UserOutboxEventEntity.EventType.UPDATE_ATTRIBUTES)
+                .username(externalId)
+                .name("Ana")
+                .status(UserOutboxEventEntity.Status.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(Instant.now())
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    private static UserOutboxEventEntity delete(Long id, String username, String email) {
+        return UserOutboxEventEntity.builder()
+                .id(id)
+                .eventType(UserOutboxEventEntity.EventType.DELETE_USER)
+                .username(username)
+                .email(email)
+                .status(UserOutboxEventEntity.Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(Instant.now())
+                .createdAt(Instant.now())
+                .build();
+    }
+}
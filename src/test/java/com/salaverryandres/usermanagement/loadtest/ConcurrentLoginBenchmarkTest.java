@@ -0,0 +1,112 @@
+package com.salaverryandres.usermanagement.loadtest;
+
+import com.salaverryandres.usermanagement.UserManagementApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput de POST /auth/login con muchos clientes simultáneos, a través de Tomcat embebido y el
+ * Cognito en memoria (latencia fija de red). Arranca la aplicación dos veces: con el pool por defecto
+ * de Tomcat (200 hilos del sistema) y con spring.threads.virtual.enabled (un hilo virtual por petición).
+ * Los límites de login y del bulkhead de Cognito se abren para que solo cambie el modelo de hilos.
+ * Se ejecuta con: mvn -Pbenchmark test -Dtest=ConcurrentLoginBenchmarkTest
+ */
+@Tag("benchmark")
+class ConcurrentLoginBenchmarkTest {
+
+    private static final int REQUESTS = 5_000;
+    private static final int CLIENTS = 1_000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final String COGNITO_LATENCY = "50ms";
+    private static final String ADMIN_LOGIN = "{\"email\":\"admin@example.com\",\"password\":\"Admin1234!\"}";
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void concurrentLogins_platformVsVirtualThreads() throws Exception {
+        double platform = measure(false);
+        double virtual = measure(true);
+
+        System.out.printf("Logins concurrentes por HTTP (%d peticiones, %d clientes, latencia Cognito %s)%n",
+                REQUESTS, CLIENTS, COGNITO_LATENCY);
+        System.out.printf("  Tomcat, hilos del sistema (%d): %10.1f logins/s%n", TOMCAT_MAX_THREADS, platform);
+        System.out.printf("  Tomcat, hilos virtuales       : %10.1f logins/s%n", virtual);
+    }
+
+    private double measure(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = start(virtualThreads)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            run(port, 1_000); // calentamiento del JIT
+            return run(port, REQUESTS);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(UserManagementApplication.class)
+                .profiles("test", "cognito-stub")
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:login-benchmark-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "users.cognito-stub.latency=" + COGNITO_LATENCY,
+                        "users.cognito-stub.jitter=0ms",
+                        "users.cognito-stub.error-rate=0",
+                        "users.login-rate-limit.email.per-minute=1000000",
+                        "users.login-rate-limit.email.burst=1000000",
+                        "users.login-rate-limit.ip.per-minute=1000000",
+                        "users.login-rate-limit.ip.burst=1000000",
+                        "aws.cognito.resilience.auth.initial-limit=" + CLIENTS,
+                        "aws.cognito.resilience.auth.max-limit=" + CLIENTS,
+                        "logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.show_sql=false")
+                .run();
+    }
+
+    private double run(int port, int requests) throws Exception {
+        HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(ADMIN_LOGIN))
+                .build();
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore clients = new Semaphore(CLIENTS);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                clients.acquire();
+                executor.submit(() -> {
+                    try {
+                        if (http.send(login, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        clients.release();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        assertThat(errors).as("logins fallidos").hasValue(0);
+        return requests / seconds;
+    }
+}
@@ -0,0 +1,199 @@
+package com.salaverryandres.usermanagement.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga extremo a extremo contra AuthController y UserController, con el Cognito
+ * en memoria (perfil cognito-stub) y H2. Informa throughput y p50/p99/p999 por endpoint.
+ * Se ejecuta con: mvn -Pbenchmark test -Dtest=UserApiLoadTest
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "cognito-stub"})
+@TestPropertySource(properties = {
+        "users.cognito-stub.latency=20ms",
+        "users.cognito-stub.jitter=10ms",
+        "users.cognito-stub.error-rate=0",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "spring.jpa.properties.hibernate.show_sql=false"
+})
+class UserApiLoadTest {
+
+    private static final int CONCURRENCY = 32;
+    private static final int USERS = 500;
+    private static final int LOGINS = 2_000;
+    private static final int READS = 5_000;
+    private static final String PASSWORD = "Password1!";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void userApiUnderLoad() throws Exception {
+        String adminToken = login("admin@example.com", "Admin1234!");
+        List<String> externalIds = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+
+        Result create = run("POST /api/users", USERS, i -> {
+            String email = "carga" + i + "@example.com";
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/users"))
+                    .header("Authorization", "Bearer " + adminToken)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json(Map.of(
+                            "name", "Carga", "lastName", "Usuario" + i, "email", email))))
+                    .build());
+            if (response.statusCode() == 201) {
+                synchronized (externalIds) {
+                    externalIds.add(objectMapper.readTree(response.body()).get("externalId").asText());
+                    emails.add(email);
+                }
+            }
+            return response.statusCode();
+        });
+
+        Result logins = run("POST /auth/login", LOGINS, i -> send(loginRequest(emails.get(i % emails.size()), PASSWORD))
+                .statusCode());
+
+        String userToken = login(emails.get(0), PASSWORD);
+        Result reads = run("GET /api/users/{externalId}", READS, i -> send(HttpRequest.newBuilder(
+                        uri("/api/users/" + externalIds.get(ThreadLocalRandom.current().nextInt(externalIds.size()))))
+                .header("Authorization", "Bearer " + userToken)
+                .GET()
+                .build()).statusCode());
+
+        Result pages = run("GET /api/users?page=", READS, i -> send(HttpRequest.newBuilder(
+                        uri("/api/users?size=20&page=" + (i % (USERS / 20))))
+                .header("Authorization", "Bearer " + userToken)
+                .GET()
+                .build()).statusCode());
+
+        System.out.printf("%n%-30s %8s %7s %10s %9s %9s %9s%n", "endpoint", "reqs", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms");
+        for (Result result : List.of(create, logins, reads, pages)) {
+            System.out.println(result);
+        }
+
+        for (Result result : List.of(create, logins, reads, pages)) {
+            assertThat(result.errors).as(result.name).isZero();
+        }
+    }
+
+    private Result run(String name, int requests, Call call) throws InterruptedException {
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                inFlight.acquire();
+                executor.submit(() -> {
+                    long t0 = System.nanoTime();
+                    try {
+                        int status = call.apply(index);
+                        if (status >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies.add(System.nanoTime() - t0);
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(name, latencies.stream().mapToLong(Long::longValue).toArray(), errors.get(), elapsed);
+    }
+
+    private String login(String email, String password) throws Exception {
+        HttpResponse<String> response = send(loginRequest(email, password));
+        assertThat(response.statusCode()).as("login " + email).isEqualTo(200);
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.get("accessToken").asText();
+    }
+
+    private HttpRequest loginRequest(String email, String password) throws Exception {
+        return HttpRequest.newBuilder(uri("/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(Map.of("email", email, "password", password))))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String json(Object body) throws Exception {
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        int apply(int index) throws Exception;
+    }
+
+    private record Result(String name, long[] latencies, int errors, long elapsedNanos) {
+
+        Result {
+            Arrays.sort(latencies);
+        }
+
+        double throughput() {
+            return latencies.length / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-30s %8d %7d %10.1f %9.2f %9.2f %9.2f", name, latencies.length, errors, throughput(),
+                    percentileMillis(50), percentileMillis(99), percentileMillis(99.9));
+        }
+    }
+}